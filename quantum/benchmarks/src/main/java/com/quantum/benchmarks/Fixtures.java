@@ -0,0 +1,64 @@
+package com.quantum.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.quantum.model.JobResult;
+import com.quantum.model.QuantumJob;
+import com.quantum.sampling.ShotHistogram;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.random.RandomGenerator;
+
+/**
+ * Shared inputs for the benchmarks: an ObjectMapper configured like the application's
+ * (see application.properties) and synthetic jobs shaped like the ones the service stores.
+ */
+final class Fixtures {
+
+    static final String[] STATUSES = {"COMPLETED", "COMPLETED", "COMPLETED", "FAILED", "QUEUED", "RUNNING", "CANCELLED"};
+
+    private Fixtures() {
+    }
+
+    static ObjectMapper objectMapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    }
+
+    // A completed CIRCUIT job whose histogram has `distinct` outcomes over `qubits` qubits
+    static QuantumJob job(String userId, int qubits, int distinct, RandomGenerator random) {
+        QuantumJob job = new QuantumJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setUserId(userId);
+        job.setAlgorithm("CIRCUIT");
+        job.setBackend(QuantumJob.Backend.SIMULATOR);
+        job.setParameters(Map.of("qubits", qubits, "gates", List.of("H 0", "CNOT 0 1")));
+        job.setShots(1024);
+        job.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+        job.setCreatedAt(LocalDateTime.now());
+        job.setCompletedAt(LocalDateTime.now());
+        job.setExecutionTime(random.nextDouble());
+
+        JobResult result = new JobResult("Circuit");
+        result.setSeed(random.nextLong());
+        result.setCounts(histogram(qubits, distinct, random));
+        result.put("qubits", qubits);
+        result.put("representation", "dense");
+        job.setResults(result);
+        return job;
+    }
+
+    static ShotHistogram histogram(int qubits, int distinct, RandomGenerator random) {
+        long[] states = random.longs(distinct, 0, 1L << qubits).sorted().distinct().toArray();
+        int[] counts = random.ints(states.length, 1, 64).toArray();
+        return new ShotHistogram(qubits, states, counts);
+    }
+}
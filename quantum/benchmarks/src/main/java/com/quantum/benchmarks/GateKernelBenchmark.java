@@ -0,0 +1,79 @@
+package com.quantum.benchmarks;
+
+import com.quantum.simulator.AmplitudeStorageFactory;
+import com.quantum.simulator.Gate;
+import com.quantum.simulator.GateType;
+import com.quantum.simulator.StateVector;
+import com.quantum.simulator.StateVectorSimulator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One gate applied to a uniform superposition, by register size. Single-qubit gates act on the
+ * middle qubit, two-qubit gates on the outermost pair (largest stride), QFT on the whole register.
+ * Registers at or above the off-heap threshold (24 qubits by default) use direct buffers.
+ * {@code simd} switches heap registers between the Vector API and scalar kernels; the fork adds the
+ * incubator module so both are available.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class GateKernelBenchmark {
+
+    @Param({"12", "16", "20", "24"})
+    public int qubits;
+
+    @Param({"H", "RZ", "CNOT", "SWAP", "QFT"})
+    public String gate;
+
+    @Param({"0"})
+    public int parallelism;
+
+    @Param({"true", "false"})
+    public boolean simd;
+
+    private StateVectorSimulator simulator;
+    private StateVector state;
+    private Gate operation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        simulator = new StateVectorSimulator(new AmplitudeStorageFactory(24, "", simd), 30, parallelism, 16384,
+                0.0625, 4194304, 0);
+        state = simulator.newState(qubits);
+        for (int q = 0; q < qubits; q++) {
+            simulator.apply(new Gate(GateType.H, new int[]{q}, 0.0), state);
+        }
+        GateType type = GateType.valueOf(gate);
+        int[] operands = type.getArity() == 1 ? new int[]{qubits / 2} : new int[]{0, qubits - 1};
+        operation = new Gate(type, operands, Math.PI / 3);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        state.close();
+        simulator.shutdown();
+    }
+
+    @Benchmark
+    public StateVector apply() {
+        simulator.apply(operation, state);
+        return state;
+    }
+}
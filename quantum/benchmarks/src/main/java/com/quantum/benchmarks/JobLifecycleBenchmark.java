@@ -0,0 +1,98 @@
+package com.quantum.benchmarks;
+
+import com.quantum.backend.BackendDispatcher;
+import com.quantum.backend.LocalSimulatorBackend;
+import com.quantum.cache.ResultCache;
+import com.quantum.events.JobEventBus;
+import com.quantum.metrics.PipelineMetrics;
+import com.quantum.model.QuantumJob;
+import com.quantum.repository.InMemoryJobRepository;
+import com.quantum.repository.JobRepository;
+import com.quantum.scheduler.JobScheduler;
+import com.quantum.service.QuantumComputingService;
+import com.quantum.simulator.AmplitudeStorageFactory;
+import com.quantum.simulator.StateVectorSimulator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A CIRCUIT job from submission to a terminal status: store, schedule, run on a worker, save the
+ * result. Each completed job is deleted again so the store does not grow across iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JobLifecycleBenchmark {
+
+    @Param({"4", "12"})
+    public int qubits;
+
+    @Param({"1024"})
+    public int shots;
+
+    private JobRepository repository;
+    private StateVectorSimulator simulator;
+    private BackendDispatcher dispatcher;
+    private QuantumComputingService service;
+    private Map<String, Object> parameters;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = new InMemoryJobRepository();
+        simulator = new StateVectorSimulator(new AmplitudeStorageFactory(24, "", true), 26, 0, 16384, 0.0625, 4194304, 0);
+        JobScheduler scheduler = new JobScheduler(0, 1000);
+        dispatcher = new BackendDispatcher(scheduler, List.of(new LocalSimulatorBackend()), 0, 0, 1);
+        ResultCache cache = new ResultCache(Fixtures.objectMapper(), false, 0);
+        PipelineMetrics metrics = new PipelineMetrics(new SimpleMeterRegistry(), scheduler, dispatcher, simulator, cache);
+        service = new QuantumComputingService(simulator, dispatcher, repository, cache, metrics, new JobEventBus(), 250, false, 0);
+
+        // GHZ preparation followed by a layer of rotations
+        List<String> gates = new ArrayList<>();
+        gates.add("H 0");
+        for (int q = 1; q < qubits; q++) {
+            gates.add("CNOT " + (q - 1) + " " + q);
+        }
+        for (int q = 0; q < qubits; q++) {
+            gates.add("RY " + q + " 0.3");
+        }
+        parameters = Map.of("qubits", qubits, "gates", gates, "seed", 42L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dispatcher.shutdown();
+        simulator.shutdown();
+    }
+
+    @Benchmark
+    public QuantumJob submitAndAwait() {
+        QuantumJob submitted = service.submitJob("bench", "CIRCUIT", QuantumJob.Backend.SIMULATOR, parameters, shots);
+        QuantumJob job;
+        while (!JobRepository.isTerminal((job = service.getJob(submitted.getId())).getStatus())) {
+            LockSupport.parkNanos(1_000);
+        }
+        repository.delete(job.getId());
+        return job;
+    }
+}
@@ -0,0 +1,124 @@
+package com.quantum.benchmarks;
+
+import com.quantum.backend.BackendDispatcher;
+import com.quantum.backend.LocalSimulatorBackend;
+import com.quantum.cache.ResultCache;
+import com.quantum.events.JobEventBus;
+import com.quantum.metrics.PipelineMetrics;
+import com.quantum.model.QuantumJob;
+import com.quantum.repository.InMemoryJobRepository;
+import com.quantum.repository.JobRepository;
+import com.quantum.repository.SegmentLogJobRepository;
+import com.quantum.scheduler.JobScheduler;
+import com.quantum.service.QuantumComputingService;
+import com.quantum.simulator.AmplitudeStorageFactory;
+import com.quantum.simulator.StateVectorSimulator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+import java.util.stream.Stream;
+
+/**
+ * {@code getStatistics} and {@code getUserJobs} over large job stores, called through the service
+ * as the controller does. Jobs are spread over {@code users} users; the log store is written to a
+ * temporary directory that is removed after the trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JobStoreBenchmark {
+
+    @Param({"memory", "log"})
+    public String store;
+
+    @Param({"10000", "100000"})
+    public int jobs;
+
+    @Param({"100"})
+    public int users;
+
+    private Path directory;
+    private JobRepository repository;
+    private StateVectorSimulator simulator;
+    private BackendDispatcher dispatcher;
+    private QuantumComputingService service;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if ("log".equals(store)) {
+            directory = Files.createTempDirectory("quantum-bench-jobs");
+            SegmentLogJobRepository log = new SegmentLogJobRepository(Fixtures.objectMapper(), directory.toString(),
+                    64L << 20, 200, 60_000, 0.5);
+            log.start();
+            repository = log;
+        } else {
+            repository = new InMemoryJobRepository();
+        }
+        RandomGenerator random = RandomGenerator.of("L64X128MixRandom");
+        for (int i = 0; i < jobs; i++) {
+            repository.save(Fixtures.job("user-" + (i % users), 10, 16, random));
+        }
+        simulator = new StateVectorSimulator(new AmplitudeStorageFactory(24, "", true), 26, 0, 16384, 0.0625, 4194304, 0);
+        JobScheduler scheduler = new JobScheduler(1, 1000);
+        dispatcher = new BackendDispatcher(scheduler, List.of(new LocalSimulatorBackend()), 0, 0, 1);
+        ResultCache cache = new ResultCache(Fixtures.objectMapper(), false, 0);
+        PipelineMetrics metrics = new PipelineMetrics(new SimpleMeterRegistry(), scheduler, dispatcher, simulator, cache);
+        service = new QuantumComputingService(simulator, dispatcher, repository, cache, metrics, new JobEventBus(), 250, false, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        dispatcher.shutdown();
+        simulator.shutdown();
+        if (repository instanceof SegmentLogJobRepository log) {
+            log.close();
+        }
+        if (directory != null) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> {
+                    try {
+                        Files.delete(path);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> statistics() {
+        return service.getStatistics();
+    }
+
+    @Benchmark
+    public List<QuantumJob> userJobs() {
+        next = (next + 1) % users;
+        return service.getUserJobs("user-" + next);
+    }
+}
@@ -0,0 +1,88 @@
+package com.quantum.benchmarks;
+
+import com.quantum.sampling.JobRandom;
+import com.quantum.sampling.MeasurementSampler;
+import com.quantum.sampling.ShotHistogram;
+import com.quantum.simulator.ParallelSweep;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * Baseline for the sampling work: uniform random measurement counts and their average Hamming
+ * weight, once through the original string-keyed {@code generateRandomState} /
+ * {@code calculateAverageHammingWeight} pair (copied verbatim from the first service version) and
+ * once through {@link MeasurementSampler} and {@link ShotHistogram}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomCountsBenchmark {
+
+    @Param({"5", "20"})
+    public int qubits;
+
+    @Param({"1000", "100000", "1000000"})
+    public int shots;
+
+    private final Random random = new Random();
+    private final SplittableGenerator generator = JobRandom.create(42);
+    // a dedicated pool, as the simulator's, at its default threshold
+    private final ParallelSweep sweep = new ParallelSweep(new ForkJoinPool(), 16384);
+
+    @Benchmark
+    public double legacyStringCounts() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < shots; i++) {
+            String state = generateRandomState(qubits);
+            counts.put(state, counts.getOrDefault(state, 0) + 1);
+        }
+        return calculateAverageHammingWeight(counts);
+    }
+
+    @Benchmark
+    public double histogramCounts() {
+        long mask = (1L << qubits) - 1;
+        ShotHistogram counts = MeasurementSampler.sample(qubits, shots, generator, sweep, rng -> rng.nextLong() & mask);
+        return counts.averageHammingWeight();
+    }
+
+    private String generateRandomState(int qubits) {
+        StringBuilder state = new StringBuilder();
+        for (int i = 0; i < qubits; i++) {
+            state.append(random.nextInt(2));
+        }
+        return state.toString();
+    }
+
+    private double calculateAverageHammingWeight(Map<String, Integer> counts) {
+        int total = counts.values().stream().mapToInt(Integer::intValue).sum();
+        double sum = 0;
+
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            String state = entry.getKey();
+            int count = entry.getValue();
+            int ones = (int) state.chars().filter(ch -> ch == '1').count();
+            sum += ones * count;
+        }
+
+        return sum / total;
+    }
+}
@@ -0,0 +1,69 @@
+package com.quantum.benchmarks;
+
+import com.quantum.sampling.JobRandom;
+import com.quantum.sampling.MeasurementSampler;
+import com.quantum.sampling.ProbabilityDistribution;
+import com.quantum.sampling.ShotHistogram;
+import com.quantum.simulator.ParallelSweep;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * Measurement sampling from a random distribution, 1k to 1M shots. Registers up to
+ * {@link MeasurementSampler#ALIAS_MAX_STATES} states take the alias-table path, larger ones the
+ * sorted-uniform sweep. The alias table is rebuilt on every call, as it is for every job.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SamplingBenchmark {
+
+    @Param({"10", "20", "24"})
+    public int qubits;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int shots;
+
+    private ProbabilityDistribution distribution;
+    private SplittableGenerator random;
+    // a dedicated pool, as the simulator's, at its default threshold
+    private final ParallelSweep sweep = new ParallelSweep(new ForkJoinPool(), 16384);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableGenerator source = JobRandom.create(42);
+        double[] probabilities = new double[1 << qubits];
+        double total = 0.0;
+        for (int i = 0; i < probabilities.length; i++) {
+            probabilities[i] = source.nextDouble();
+            total += probabilities[i];
+        }
+        for (int i = 0; i < probabilities.length; i++) {
+            probabilities[i] /= total;
+        }
+        distribution = ProbabilityDistribution.of(probabilities);
+        random = JobRandom.create(7);
+    }
+
+    @Benchmark
+    public ShotHistogram sample() {
+        return MeasurementSampler.sample(distribution, qubits, shots, random, sweep);
+    }
+}
@@ -0,0 +1,72 @@
+package com.quantum.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.quantum.model.QuantumJob;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+/**
+ * JSON serialization of a completed {@link QuantumJob}, by histogram size: indented as the REST
+ * responses are written, compact as the job log and NDJSON streams write it, and parsed back.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    public int distinctStates;
+
+    @Param({"20"})
+    public int qubits;
+
+    private ObjectMapper mapper;
+    private ObjectWriter indented;
+    private ObjectWriter compact;
+    private QuantumJob job;
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        mapper = Fixtures.objectMapper();
+        indented = mapper.writer();
+        compact = mapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        job = Fixtures.job("bench", qubits, distinctStates, RandomGenerator.of("L64X128MixRandom"));
+        json = compact.writeValueAsBytes(job);
+    }
+
+    @Benchmark
+    public byte[] writeIndented() throws JsonProcessingException {
+        return indented.writeValueAsBytes(job);
+    }
+
+    @Benchmark
+    public byte[] writeCompact() throws JsonProcessingException {
+        return compact.writeValueAsBytes(job);
+    }
+
+    @Benchmark
+    public QuantumJob read() throws IOException {
+        return mapper.readValue(json, QuantumJob.class);
+    }
+}
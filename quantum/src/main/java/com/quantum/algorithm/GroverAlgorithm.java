@@ -0,0 +1,139 @@
+package com.quantum.algorithm;
+
+import com.quantum.model.JobResult;
+import com.quantum.sampling.MeasurementSampler;
+import com.quantum.sampling.ShotHistogram;
+import com.quantum.simulator.ExecutionMonitor;
+import com.quantum.simulator.ParallelSweep;
+import com.quantum.simulator.StateVector;
+import com.quantum.simulator.StateVectorSimulator;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * Grover search for M marked basis states among N = 2^n. The state-vector path applies the oracle
+ * as a phase flip on the marked amplitudes and the diffuser as one O(N) reflection about the mean
+ * amplitude; the amplitude sum is unchanged by the reflection, so the mean is tracked from the
+ * marked entries alone and each round is a single pass. Because every marked amplitude (and every
+ * unmarked one) stays equal, the analytic path evolves just those two values, sin((2k+1)t) and
+ * cos((2k+1)t) with sin(t) = sqrt(M/N), which handles up to 62 qubits in constant memory.
+ */
+public final class GroverAlgorithm {
+
+    public static final int MAX_QUBITS = 62;
+    // largest register simulated amplitude by amplitude when the caller leaves the method to us
+    public static final int STATEVECTOR_MAX_QUBITS = 20;
+
+    public enum Method {
+        AUTO, STATEVECTOR, ANALYTIC
+    }
+
+    private GroverAlgorithm() {
+    }
+
+    // floor(pi / 4t): the round count that maximises the success probability
+    public static long optimalIterations(int qubits, int markedCount) {
+        double theta = Math.asin(Math.sqrt((double) markedCount / Math.scalb(1.0, qubits)));
+        return (long) Math.floor(Math.PI / (4 * theta));
+    }
+
+    // `iterations` overrides the optimal round count; `marked` holds distinct basis states below 2^qubits
+    public static JobResult run(int qubits, long[] marked, Long iterations, Method method, int shots,
+                                SplittableGenerator rng, StateVectorSimulator simulator, ExecutionMonitor monitor) {
+        if (qubits < 1 || qubits > MAX_QUBITS) {
+            throw new IllegalArgumentException("qubits must be between 1 and " + MAX_QUBITS);
+        }
+        long space = 1L << qubits;
+        long[] targets = Arrays.stream(marked).distinct().sorted().toArray();
+        if (targets.length == 0 || targets.length >= space) {
+            throw new IllegalArgumentException("Between 1 and " + (space - 1) + " marked states are needed, got "
+                    + targets.length);
+        }
+        long optimal = optimalIterations(qubits, targets.length);
+        long rounds = iterations != null ? iterations : optimal;
+        if (rounds < 0 || rounds > 4 * optimal + 4) {
+            throw new IllegalArgumentException("iterations must be between 0 and " + (4 * optimal + 4)
+                    + " (optimal is " + optimal + ")");
+        }
+        boolean statevector = switch (method) {
+            case STATEVECTOR -> true;
+            case ANALYTIC -> false;
+            case AUTO -> qubits <= Math.min(STATEVECTOR_MAX_QUBITS, simulator.getMaxQubits());
+        };
+
+        JobResult result = new JobResult("Grover");
+        result.put("qubits", qubits);
+        result.put("marked_count", targets.length);
+        result.put("method", statevector ? "statevector" : "analytic");
+        result.put("iterations", rounds);
+        result.put("optimal_iterations", optimal);
+        result.put("oracle_calls", rounds);
+        if (statevector) {
+            simulate(qubits, targets, rounds, shots, rng, simulator, monitor, result);
+        } else {
+            evolve(qubits, targets, rounds, shots, rng, simulator.getSweep(), monitor, result);
+        }
+        result.put("quantum_speedup", "quadratic");
+        return result;
+    }
+
+    private static void simulate(int qubits, long[] marked, long rounds, int shots, SplittableGenerator rng,
+                                 StateVectorSimulator simulator, ExecutionMonitor monitor, JobResult result) {
+        ParallelSweep sweep = simulator.getSweep();
+        try (StateVector state = simulator.newState(qubits)) {
+            int size = state.size();
+            double amplitude = 1.0 / Math.sqrt(size);
+            sweep.run(size, (from, to) -> state.fill(amplitude, 0.0, from, to));
+            double sumRe = size * amplitude;
+            double sumIm = 0.0;
+            for (long k = 0; k < rounds; k++) {
+                monitor.checkCancelled();
+                for (long m : marked) {
+                    int i = (int) m;
+                    sumRe -= 2 * state.storage().re(i);
+                    sumIm -= 2 * state.storage().im(i);
+                    state.phaseFlip(i);
+                }
+                double meanRe = sumRe / size;
+                double meanIm = sumIm / size;
+                sweep.run(size, (from, to) -> state.reflectAboutMean(meanRe, meanIm, from, to));
+                monitor.simulated((int) k + 1, (int) rounds);
+            }
+            double success = 0.0;
+            for (long m : marked) {
+                success += state.probability((int) m);
+            }
+            result.put("success_probability", success);
+            result.setCounts(MeasurementSampler.sample(state, qubits, shots, rng, sweep, monitor.shotCounter(shots)));
+        }
+    }
+
+    private static void evolve(int qubits, long[] marked, long rounds, int shots, SplittableGenerator rng,
+                               ParallelSweep sweep, ExecutionMonitor monitor, JobResult result) {
+        long space = 1L << qubits;
+        double theta = Math.asin(Math.sqrt((double) marked.length / space));
+        double angle = (2 * rounds + 1) * theta;
+        double success = Math.sin(angle) * Math.sin(angle);
+        result.put("success_probability", success);
+        result.put("marked_amplitude", Math.sin(angle) / Math.sqrt(marked.length));
+        result.put("unmarked_amplitude", Math.cos(angle) / Math.sqrt(space - marked.length));
+
+        ShotHistogram counts = MeasurementSampler.sample(qubits, shots, rng, sweep, r -> r.nextDouble() < success
+                ? marked[r.nextInt(marked.length)]
+                : unmarkedAt(marked, r.nextLong(space - marked.length)), monitor.shotCounter(shots));
+        result.setCounts(counts);
+    }
+
+    // The rank-th basis state (from 0) that is not marked; `marked` is sorted
+    private static long unmarkedAt(long[] marked, long rank) {
+        long state = rank;
+        for (long m : marked) {
+            if (m > state) {
+                break;
+            }
+            state++;
+        }
+        return state;
+    }
+}
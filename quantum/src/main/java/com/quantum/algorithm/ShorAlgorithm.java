@@ -0,0 +1,324 @@
+package com.quantum.algorithm;
+
+import com.quantum.model.JobResult;
+import com.quantum.sampling.MeasurementSampler;
+import com.quantum.sampling.ProbabilityDistribution;
+import com.quantum.sampling.ShotHistogram;
+import com.quantum.simulator.ExecutionMonitor;
+import com.quantum.simulator.HeapAmplitudeStorage;
+import com.quantum.simulator.ParallelSweep;
+import com.quantum.simulator.QftKernel;
+import com.quantum.simulator.StateVector;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * Shor's factoring algorithm with the period-finding circuit simulated on t = 2n counting qubits and
+ * n work qubits for an n-bit number. The modular-exponentiation oracle is applied as a permutation of
+ * basis states (|x>|1> to |x>|a^x mod N>) by grouping counting indices by their work-register value,
+ * so no matrix is ever built; the QFT kernel then acts on each work-register block independently. Blocks
+ * that are translates of one another (same size and spacing) only differ by a phase after the QFT,
+ * so each distinct block shape is transformed once and its outcome probabilities weighted. The
+ * sampled counting register is post-processed with continued fractions. The monitor is polled before
+ * every block transform and sampling chunk, and counts transformed blocks as simulation progress.
+ */
+public final class ShorAlgorithm {
+
+    public static final int MAX_COUNTING_QUBITS = 22;
+    private static final int MAX_ATTEMPTS = 10;
+    private static final int MAX_OUTCOMES_EXAMINED = 64;
+
+    private ShorAlgorithm() {
+    }
+
+    private static final class Timings {
+        long oracle;
+        long qft;
+        long sampling;
+        long postProcessing;
+
+        Map<String, Double> toMillis(long total) {
+            Map<String, Double> millis = new LinkedHashMap<>();
+            millis.put("oracle", oracle / 1e6);
+            millis.put("qft", qft / 1e6);
+            millis.put("sampling", sampling / 1e6);
+            millis.put("post_processing", postProcessing / 1e6);
+            millis.put("total", total / 1e6);
+            return millis;
+        }
+    }
+
+    // `base` fixes the random base a (no retries); otherwise bases are drawn from the job generator
+    public static JobResult run(long number, Long base, int shots, SplittableGenerator rng, ParallelSweep sweep,
+                                ExecutionMonitor monitor) {
+        if (number < 4) {
+            throw new IllegalArgumentException("number must be at least 4, got " + number);
+        }
+        long start = System.nanoTime();
+        Timings timings = new Timings();
+        JobResult result = new JobResult("Shor");
+        result.put("input_number", number);
+
+        // classical shortcuts that the quantum step cannot handle
+        long root;
+        if (number % 2 == 0) {
+            return finish(result, "even", 2, number, start, timings);
+        }
+        if (BigInteger.valueOf(number).isProbablePrime(40)) {
+            return finish(result, "prime", 0, number, start, timings);
+        }
+        if ((root = perfectPowerRoot(number)) > 0) {
+            return finish(result, "perfect_power", root, number, start, timings);
+        }
+
+        int workQubits = 64 - Long.numberOfLeadingZeros(number);
+        int countingQubits = 2 * workQubits;
+        if (countingQubits > MAX_COUNTING_QUBITS) {
+            throw new IllegalArgumentException(number + " needs " + (countingQubits + workQubits)
+                    + " simulated qubits; at most " + MAX_COUNTING_QUBITS + " counting qubits (numbers below "
+                    + (1L << (MAX_COUNTING_QUBITS / 2)) + ") are supported");
+        }
+        if (base != null && (base < 2 || base >= number)) {
+            throw new IllegalArgumentException("base must be between 2 and " + (number - 1));
+        }
+        result.put("counting_qubits", countingQubits);
+        result.put("work_qubits", workQubits);
+        result.put("qubits_required", countingQubits + workQubits);
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            long a = base != null ? base : 2 + rng.nextLong(number - 3);
+            result.put("attempts", attempt);
+            result.put("base", a);
+            result.getDetails().remove("period");
+            result.setCounts(null);
+
+            long g = gcd(a, number);
+            if (g > 1) {
+                return finish(result, "classical_gcd", g, number, start, timings);
+            }
+
+            ShotHistogram counts = samplePeriodRegister(a, number, countingQubits, shots, rng, sweep, monitor, timings);
+            result.setCounts(counts);
+
+            long t0 = System.nanoTime();
+            long period = recoverPeriod(counts, a, number, countingQubits);
+            long factor = 0;
+            if (period > 0 && period % 2 == 0) {
+                long half = modPow(a, period / 2, number);
+                if (half != number - 1) {
+                    factor = gcd(half - 1, number);
+                }
+            }
+            timings.postProcessing += System.nanoTime() - t0;
+            result.put("period", period);
+
+            if (factor > 1 && factor < number) {
+                return finish(result, "quantum_period_finding", factor, number, start, timings);
+            }
+            if (base != null) {
+                break;
+            }
+        }
+        return finish(result, "quantum_period_finding", 0, number, start, timings);
+    }
+
+    // Oracle, QFT and measurement of the counting register for f(x) = a^x mod N
+    private static ShotHistogram samplePeriodRegister(long a, long n, int countingQubits, int shots,
+                                                      SplittableGenerator rng, ParallelSweep sweep, ExecutionMonitor monitor,
+                                                      Timings timings) {
+        int size = 1 << countingQubits;
+
+        // oracle as a permutation: counting indices grouped by the work value they map to, ascending within a group
+        long t0 = System.nanoTime();
+        int residues = (int) n;
+        int[] work = new int[size];
+        int[] groupStart = new int[residues + 1];
+        long y = 1;
+        for (int x = 0; x < size; x++) {
+            work[x] = (int) y;
+            groupStart[(int) y + 1]++;
+            y = y * a % n;
+        }
+        for (int v = 0; v < residues; v++) {
+            groupStart[v + 1] += groupStart[v];
+        }
+        int[] members = new int[size];
+        int[] fill = Arrays.copyOf(groupStart, residues);
+        for (int x = 0; x < size; x++) {
+            members[fill[work[x]]++] = x;
+        }
+        timings.oracle += System.nanoTime() - t0;
+
+        // QFT of each work-register block; translated blocks share outcome probabilities
+        t0 = System.nanoTime();
+        double[] probabilities = new double[size];
+        HeapAmplitudeStorage storage = new HeapAmplitudeStorage(size);
+        StateVector register = new StateVector(countingQubits, storage);
+        QftKernel qft = new QftKernel(register, 0, countingQubits, false);
+        double amplitude = 1.0 / Math.sqrt(size);
+        Map<Long, Integer> shapes = new HashMap<>();
+        List<Integer> irregular = new ArrayList<>();
+        for (int v = 0; v < residues; v++) {
+            int from = groupStart[v];
+            int count = groupStart[v + 1] - from;
+            if (count == 0) {
+                continue;
+            }
+            int spacing = count > 1 ? members[from + 1] - members[from] : 0;
+            boolean regular = true;
+            for (int i = from + 2; i < from + count && regular; i++) {
+                regular = members[i] - members[i - 1] == spacing;
+            }
+            if (regular) {
+                shapes.merge(((long) count << 32) | spacing, 1, Integer::sum);
+            } else {
+                irregular.add(v);
+            }
+        }
+        int blocks = irregular.size() + shapes.size();
+        int done = 0;
+        for (int v : irregular) {
+            monitor.checkCancelled();
+            storage.clear();
+            for (int i = groupStart[v]; i < groupStart[v + 1]; i++) {
+                storage.set(members[i], amplitude, 0.0);
+            }
+            accumulate(qft, storage, sweep, 1, probabilities);
+            monitor.simulated(++done, blocks);
+        }
+        for (Map.Entry<Long, Integer> shape : shapes.entrySet()) {
+            monitor.checkCancelled();
+            int count = (int) (shape.getKey() >>> 32);
+            int spacing = (int) (long) shape.getKey();
+            storage.clear();
+            for (int i = 0; i < count; i++) {
+                storage.set(i * spacing, amplitude, 0.0);
+            }
+            accumulate(qft, storage, sweep, shape.getValue(), probabilities);
+            monitor.simulated(++done, blocks);
+        }
+        timings.qft += System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        ShotHistogram counts = MeasurementSampler.sample(ProbabilityDistribution.of(probabilities), countingQubits, shots, rng,
+                sweep, monitor.shotCounter(shots));
+        timings.sampling += System.nanoTime() - t0;
+        return counts;
+    }
+
+    private static void accumulate(QftKernel qft, HeapAmplitudeStorage storage, ParallelSweep sweep, int weight,
+                                   double[] probabilities) {
+        qft.apply(sweep);
+        double[] re = storage.real();
+        double[] im = storage.imag();
+        for (int k = 0; k < probabilities.length; k++) {
+            probabilities[k] += weight * (re[k] * re[k] + im[k] * im[k]);
+        }
+    }
+
+    // Smallest r with a^r = 1 (mod N) among continued-fraction denominators of the most frequent outcomes
+    private static long recoverPeriod(ShotHistogram counts, long a, long n, int countingQubits) {
+        Integer[] order = new Integer[counts.distinctStates()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (i, j) -> Integer.compare(counts.count(j), counts.count(i)));
+
+        long best = 0;
+        long modulus = 1L << countingQubits;
+        for (int i = 0; i < Math.min(order.length, MAX_OUTCOMES_EXAMINED); i++) {
+            long outcome = counts.state(order[i]);
+            for (long q : convergentDenominators(outcome, modulus, n)) {
+                // q divides the period when the measured fraction shares a factor with it
+                for (long r = q; r < n && (best == 0 || r < best); r += q) {
+                    if (modPow(a, r, n) == 1) {
+                        best = r;
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private static List<Long> convergentDenominators(long numerator, long denominator, long limit) {
+        List<Long> denominators = new ArrayList<>();
+        long q1 = 1;
+        long q2 = 0;
+        long num = numerator;
+        long den = denominator;
+        while (den != 0) {
+            long term = num / den;
+            long q = term * q1 + q2;
+            if (q >= limit) {
+                break;
+            }
+            if (q > 0) {
+                denominators.add(q);
+            }
+            q2 = q1;
+            q1 = q;
+            long rem = num - term * den;
+            num = den;
+            den = rem;
+        }
+        return denominators;
+    }
+
+    private static JobResult finish(JobResult result, String method, long factor, long number, long start,
+                                    Timings timings) {
+        List<Long> factors = factor > 1 ? List.of(factor, number / factor) : List.of();
+        result.put("method", method);
+        result.put("factors", factors);
+        result.put("success", !factors.isEmpty());
+        result.put("timings_ms", timings.toMillis(System.nanoTime() - start));
+        return result;
+    }
+
+    // Returns r when number = r^k for some k >= 2, else 0
+    private static long perfectPowerRoot(long number) {
+        BigInteger target = BigInteger.valueOf(number);
+        for (int k = 2; k < 64; k++) {
+            long guess = Math.round(Math.pow(number, 1.0 / k));
+            if (guess < 2) {
+                break;
+            }
+            for (long r = Math.max(2, guess - 1); r <= guess + 1; r++) {
+                if (BigInteger.valueOf(r).pow(k).equals(target)) {
+                    return r;
+                }
+            }
+        }
+        return 0;
+    }
+
+    // Operands stay below 2^(MAX_COUNTING_QUBITS / 2), so products fit in a long
+    private static long modPow(long base, long exponent, long modulus) {
+        long result = 1;
+        long b = base % modulus;
+        while (exponent > 0) {
+            if ((exponent & 1) == 1) {
+                result = result * b % modulus;
+            }
+            b = b * b % modulus;
+            exponent >>= 1;
+        }
+        return result;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return Math.abs(a);
+    }
+}
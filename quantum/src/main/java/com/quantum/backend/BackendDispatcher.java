@@ -0,0 +1,153 @@
+package com.quantum.backend;
+
+import com.quantum.model.JobResult;
+import com.quantum.model.QuantumJob;
+import com.quantum.scheduler.JobScheduler;
+import com.quantum.scheduler.SchedulerSaturatedException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routes jobs by backend: local simulation goes through the CPU-bound {@link JobScheduler},
+ * remote backends get a virtual thread each, capped by an in-flight limit, so thousands of
+ * waiting remote jobs never occupy a simulation worker. Whatever a remote backend hands back to
+ * the local simulator is queued on the scheduler like any local job, so emulated backends never
+ * simulate outside the worker pool.
+ * Any {@link QuantumBackend} bean overrides the latency-injecting stand-in for its type.
+ */
+@Component
+public class BackendDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(BackendDispatcher.class);
+
+    private final JobScheduler scheduler;
+    private final Map<QuantumJob.Backend, QuantumBackend> backends = new EnumMap<>(QuantumJob.Backend.class);
+    private final ExecutorService remoteExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore remoteSlots;
+    private final int maxRemoteInFlight;
+
+    public BackendDispatcher(JobScheduler scheduler,
+                             List<QuantumBackend> registered,
+                             @Value("${quantum.backend.remote.latency-ms:2000}") long latencyMillis,
+                             @Value("${quantum.backend.remote.jitter-ms:1000}") long jitterMillis,
+                             @Value("${quantum.backend.remote.max-in-flight:10000}") int maxRemoteInFlight) {
+        this.scheduler = scheduler;
+        this.maxRemoteInFlight = maxRemoteInFlight;
+        this.remoteSlots = new Semaphore(maxRemoteInFlight);
+        for (QuantumBackend backend : registered) {
+            backends.put(backend.getType(), backend);
+        }
+        for (QuantumJob.Backend type : QuantumJob.Backend.values()) {
+            if (!backends.containsKey(type)) {
+                backends.put(type, new LatencyInjectingBackend(type, latencyMillis, jitterMillis));
+            }
+        }
+        log.info("Backends: {}", backends.keySet());
+    }
+
+    public QuantumBackend backendFor(QuantumJob.Backend type) {
+        return backends.get(type != null ? type : QuantumJob.Backend.SIMULATOR);
+    }
+
+    public void dispatch(QuantumJob job, double cost, Runnable task) {
+        if (!isRemote(job)) {
+            scheduler.submit(job.getId(), job.getUserId(), cost, job.getPriority().ordinal(), task);
+            return;
+        }
+        if (!remoteSlots.tryAcquire()) {
+            throw new SchedulerSaturatedException(
+                    maxRemoteInFlight + " remote jobs already in flight, retry in 1s", 1);
+        }
+        try {
+            remoteExecutor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    remoteSlots.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            remoteSlots.release();
+            throw e;
+        }
+    }
+
+    // Runs the job on its backend; a remote backend's calls to `local` wait for a scheduler worker
+    public JobResult execute(QuantumJob job, double cost, QuantumBackend.LocalRunner local) throws InterruptedException {
+        QuantumBackend backend = backendFor(job.getBackend());
+        if (!backend.isRemote()) {
+            return backend.execute(job, local);
+        }
+        return backend.execute(job, j -> runOnWorker(j, cost, local));
+    }
+
+    private JobResult runOnWorker(QuantumJob job, double cost, QuantumBackend.LocalRunner local) {
+        CompletableFuture<JobResult> result = new CompletableFuture<>();
+        Runnable task = () -> {
+            try {
+                result.complete(local.run(job));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        };
+        try {
+            // the job already holds a remote slot, so a full queue is waited out rather than refused
+            while (true) {
+                try {
+                    scheduler.submit(job.getId(), job.getUserId(), cost, job.getPriority().ordinal(), task);
+                    break;
+                } catch (SchedulerSaturatedException e) {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(e.getRetryAfterSeconds()));
+                }
+            }
+            return result.get();
+        } catch (InterruptedException e) {
+            scheduler.remove(job.getId());
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a simulation worker", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Only local jobs wait in a queue; remote ones are already on their own thread
+    public boolean cancelQueued(String jobId) {
+        return scheduler.remove(jobId);
+    }
+
+    public boolean isRemote(QuantumJob job) {
+        return backendFor(job.getBackend()).isRemote();
+    }
+
+    public boolean hasIdleWorker() {
+        return scheduler.getActiveWorkers() < scheduler.getWorkerCount();
+    }
+
+    public int getRemoteInFlight() {
+        return maxRemoteInFlight - remoteSlots.availablePermits();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        remoteExecutor.shutdownNow();
+    }
+}
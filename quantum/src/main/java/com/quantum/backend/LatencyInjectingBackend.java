@@ -0,0 +1,44 @@
+package com.quantum.backend;
+
+import com.quantum.model.JobResult;
+import com.quantum.model.QuantumJob;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stand-in for a remote provider: waits a configurable round-trip latency (parking the virtual
+ * thread, not its carrier) and then produces the result with the local simulator, on a scheduler
+ * worker the dispatcher queues it for.
+ */
+public class LatencyInjectingBackend implements QuantumBackend {
+
+    private final QuantumJob.Backend type;
+    private final long latencyMillis;
+    private final long jitterMillis;
+
+    public LatencyInjectingBackend(QuantumJob.Backend type, long latencyMillis, long jitterMillis) {
+        this.type = type;
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+    }
+
+    @Override
+    public QuantumJob.Backend getType() {
+        return type;
+    }
+
+    @Override
+    public boolean isRemote() {
+        return true;
+    }
+
+    @Override
+    public JobResult execute(QuantumJob job, LocalRunner local) throws InterruptedException {
+        long wait = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+        Thread.sleep(wait);
+        JobResult result = local.run(job);
+        result.put("backend", type.name());
+        result.put("remote_latency_ms", wait);
+        return result;
+    }
+}
@@ -0,0 +1,25 @@
+package com.quantum.backend;
+
+import com.quantum.model.JobResult;
+import com.quantum.model.QuantumJob;
+import org.springframework.stereotype.Component;
+
+
+@Component
+public class LocalSimulatorBackend implements QuantumBackend {
+
+    @Override
+    public QuantumJob.Backend getType() {
+        return QuantumJob.Backend.SIMULATOR;
+    }
+
+    @Override
+    public boolean isRemote() {
+        return false;
+    }
+
+    @Override
+    public JobResult execute(QuantumJob job, LocalRunner local) {
+        return local.run(job);
+    }
+}
@@ -0,0 +1,25 @@
+package com.quantum.backend;
+
+import com.quantum.model.JobResult;
+import com.quantum.model.QuantumJob;
+
+/**
+ * Executes jobs for one {@link QuantumJob.Backend}. Remote backends are dispatched on virtual
+ * threads and are expected to spend most of their time waiting; local ones run on the CPU-bound
+ * scheduler workers.
+ */
+public interface QuantumBackend {
+
+    @FunctionalInterface
+    interface LocalRunner {
+        JobResult run(QuantumJob job);
+    }
+
+    QuantumJob.Backend getType();
+
+    boolean isRemote();
+
+    // `local` runs the job on the in-process simulator, for backends that need or emulate it;
+    // for a remote backend the call blocks until a scheduler worker has run it
+    JobResult execute(QuantumJob job, LocalRunner local) throws InterruptedException;
+}
@@ -0,0 +1,264 @@
+package com.quantum.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.quantum.model.JobResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Results of deterministic synchronous runs, keyed by a SHA-256 of the canonical request
+ * (algorithm, normalized parameters, shots, backend). Entries are weighted by their serialized size
+ * and evicted least-recently-used once the byte budget is exceeded; concurrent requests for the
+ * same key wait for a single computation. Cached results are shared and must not be modified.
+ */
+@Component
+public class ResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ResultCache.class);
+
+    private final boolean enabled;
+    private final long maxBytes;
+    private final ObjectMapper canonicalMapper;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, CompletableFuture<JobResult>> inFlight = new ConcurrentHashMap<>();
+    private long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private record Entry(JobResult result, long bytes) {
+    }
+
+    public ResultCache(ObjectMapper objectMapper,
+                       @Value("${quantum.cache.enabled:true}") boolean enabled,
+                       @Value("${quantum.cache.max-bytes:67108864}") long maxBytes) {
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.canonicalMapper = objectMapper.copy()
+                .disable(SerializationFeature.INDENT_OUTPUT)
+                .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+    }
+
+    public String key(String algorithm, Map<String, Object> parameters, int shots, String backend) {
+        Map<String, Object> canonical = new TreeMap<>();
+        canonical.put("algorithm", algorithm.toUpperCase());
+        canonical.put("parameters", normalize(parameters));
+        canonical.put("shots", shots);
+        canonical.put("backend", backend);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonicalMapper.writeValueAsBytes(canonical));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Parameters cannot be used as a cache key: " + e.getMessage());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Returns the cached result for the key, or computes it once however many callers ask at the same time
+    public JobResult get(String key, Supplier<JobResult> compute) {
+        if (!enabled) {
+            return bypass(compute);
+        }
+        JobResult cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<JobResult> mine = new CompletableFuture<>();
+        CompletableFuture<JobResult> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+        try {
+            // the previous flight may have finished between the lookup and claiming the key
+            cached = lookup(key);
+            if (cached == null) {
+                misses.increment();
+                cached = compute.get();
+                store(key, cached);
+            }
+            mine.complete(cached);
+            return cached;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // Runs without caching, for requests whose result is not reproducible
+    public JobResult bypass(Supplier<JobResult> compute) {
+        bypassed.increment();
+        return compute.get();
+    }
+
+    public Map<String, Object> getStats() {
+        long h = hits.sum() + coalesced.sum();
+        long m = misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("hits", hits.sum());
+        stats.put("coalesced", coalesced.sum());
+        stats.put("misses", m);
+        stats.put("bypassed", bypassed.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("hit_ratio", h + m > 0 ? (double) h / (h + m) : 0.0);
+        synchronized (this) {
+            stats.put("entries", entries.size());
+            stats.put("bytes", bytes);
+        }
+        stats.put("max_bytes", maxBytes);
+        return stats;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getBypassed() {
+        return bypassed.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    private synchronized JobResult lookup(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        hits.increment();
+        return entry.result();
+    }
+
+    private void store(String key, JobResult result) {
+        long size = sizeOf(result);
+        if (size > maxBytes) {
+            log.debug("Result of {} bytes exceeds the cache budget, not cached", size);
+            return;
+        }
+        synchronized (this) {
+            Entry previous = entries.put(key, new Entry(result, size));
+            bytes += size - (previous != null ? previous.bytes() : 0);
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                bytes -= eldest.next().bytes();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private long sizeOf(JobResult result) {
+        CountingStream counter = new CountingStream();
+        try {
+            canonicalMapper.writeValue(counter, result);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return counter.count;
+    }
+
+    private static JobResult await(CompletableFuture<JobResult> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Integral numbers compare equal whatever their boxed type, and map keys are sorted
+    private static Object normalize(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> sorted = new TreeMap<>();
+            map.forEach((k, v) -> sorted.put(String.valueOf(k), normalize(v)));
+            return sorted;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> normalized = new ArrayList<>(list.size());
+            list.forEach(v -> normalized.add(normalize(v)));
+            return normalized;
+        }
+        if (value instanceof Double || value instanceof Float || value instanceof BigDecimal) {
+            double d = ((Number) value).doubleValue();
+            return d == Math.rint(d) && Math.abs(d) < 0x1p53 ? (Object) (long) d : (Object) d;
+        }
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        return value;
+    }
+
+    private static final class CountingStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
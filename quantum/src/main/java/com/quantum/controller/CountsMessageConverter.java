@@ -0,0 +1,116 @@
+package com.quantum.controller;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.quantum.model.JobResult;
+import com.quantum.model.QuantumJob;
+import com.quantum.sampling.ShotHistogram;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Writes {@link JobResult}s and {@link QuantumJob}s as {@code application/vnd.quantum.counts}: the
+ * measurement counts as packed little-endian columns instead of a JSON object keyed by bitstrings,
+ * followed by everything else as compact JSON.
+ * <pre>
+ * bytes  "QCNT" | byte version (1) | byte layout (0 sparse, 1 dense) | short qubits
+ * long   shots | int entries | int metadataLength | metadata (UTF-8 JSON without counts)
+ * sparse long[entries] basis states (ascending) | int[entries] counts
+ * dense  int[entries] counts indexed by basis state, entries = 2^qubits
+ * </pre>
+ * The dense layout is chosen when it is no larger than the sparse one. Results without counts have
+ * zero entries.
+ */
+public class CountsMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final MediaType COUNTS = new MediaType("application", "vnd.quantum.counts");
+
+    private static final byte VERSION = 1;
+    private static final byte SPARSE = 0;
+    private static final byte DENSE = 1;
+    private static final int MAX_DENSE_QUBITS = 24;
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    @JsonIgnoreProperties("counts")
+    private interface WithoutCounts {
+    }
+
+    private final ObjectMapper metadataMapper;
+
+    public CountsMessageConverter(ObjectMapper objectMapper) {
+        super(COUNTS);
+        this.metadataMapper = objectMapper.copy()
+                .addMixIn(JobResult.class, WithoutCounts.class)
+                .disable(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return JobResult.class.isAssignableFrom(clazz) || QuantumJob.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Counts encoding is write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+        JobResult result = value instanceof QuantumJob job ? job.getResults() : (JobResult) value;
+        ShotHistogram counts = result != null ? result.getCounts() : null;
+        byte[] metadata = metadataMapper.writeValueAsBytes(value);
+
+        int qubits = counts != null ? counts.getQubits() : 0;
+        int distinct = counts != null ? counts.distinctStates() : 0;
+        boolean dense = counts != null && qubits <= MAX_DENSE_QUBITS && (4L << qubits) <= 12L * distinct;
+        int entries = dense ? 1 << qubits : distinct;
+
+        OutputStream out = outputMessage.getBody();
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(BUFFER_BYTES, 24 + metadata.length)).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put((byte) 'Q').put((byte) 'C').put((byte) 'N').put((byte) 'T')
+                .put(VERSION).put(dense ? DENSE : SPARSE).putShort((short) qubits)
+                .putLong(counts != null ? counts.getShots() : 0L)
+                .putInt(entries)
+                .putInt(metadata.length)
+                .put(metadata);
+
+        if (dense) {
+            int next = 0;
+            for (int i = 0; i < entries; i++) {
+                int count = next < distinct && counts.state(next) == i ? counts.count(next++) : 0;
+                buffer = ensure(buffer, 4, out).putInt(count);
+            }
+        } else {
+            for (int i = 0; i < distinct; i++) {
+                buffer = ensure(buffer, 8, out).putLong(counts.state(i));
+            }
+            for (int i = 0; i < distinct; i++) {
+                buffer = ensure(buffer, 4, out).putInt(counts.count(i));
+            }
+        }
+        out.write(buffer.array(), 0, buffer.position());
+    }
+
+    // Drains the buffer to the stream when fewer than `bytes` remain
+    private static ByteBuffer ensure(ByteBuffer buffer, int bytes, OutputStream out) throws IOException {
+        if (buffer.remaining() < bytes) {
+            out.write(buffer.array(), 0, buffer.position());
+            buffer.clear();
+        }
+        return buffer;
+    }
+}
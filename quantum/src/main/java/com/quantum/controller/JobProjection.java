@@ -0,0 +1,59 @@
+package com.quantum.controller;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.quantum.model.QuantumJob;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Writes {@link QuantumJob}s with only the requested fields, e.g. {@code fields=id,status} so job
+ * listings can leave out large results. Uses its own mapper copy so the filter never applies to
+ * other serialization.
+ */
+final class JobProjection {
+
+    private static final String FILTER = "jobFields";
+
+    @JsonFilter(FILTER)
+    private interface Filtered {
+    }
+
+    private final ObjectMapper mapper;
+    private final Set<String> properties;
+
+    JobProjection(ObjectMapper objectMapper) {
+        this.mapper = objectMapper.copy().addMixIn(QuantumJob.class, Filtered.class);
+        this.properties = mapper.getSerializationConfig()
+                .introspect(mapper.constructType(QuantumJob.class))
+                .findProperties().stream()
+                .map(BeanPropertyDefinition::getName)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    // All fields when blank; unknown field names are rejected
+    ObjectWriter writer(String fields) {
+        PropertyFilter filter = SimpleBeanPropertyFilter.serializeAll();
+        if (fields != null && !fields.isBlank()) {
+            Set<String> selected = Arrays.stream(fields.split(","))
+                    .map(String::trim)
+                    .filter(f -> !f.isEmpty())
+                    .collect(Collectors.toSet());
+            for (String field : selected) {
+                if (!properties.contains(field)) {
+                    throw new IllegalArgumentException("Unknown job field '" + field + "', expected one of " + properties);
+                }
+            }
+            filter = SimpleBeanPropertyFilter.filterOutAllExcept(selected);
+        }
+        return mapper.writer(new SimpleFilterProvider().addFilter(FILTER, filter));
+    }
+}
@@ -0,0 +1,36 @@
+package com.quantum.controller;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes one JSON object per line, flushing each so clients see results as they arrive. Safe to
+ * call from several threads. Once the client has gone away further lines are dropped, so the work
+ * producing them still runs to completion.
+ */
+final class NdjsonSink {
+
+    private final OutputStream out;
+    private final ObjectWriter writer;
+    private boolean open = true;
+
+    NdjsonSink(OutputStream out, ObjectWriter writer) {
+        this.out = out;
+        this.writer = writer;
+    }
+
+    synchronized void write(Object value) {
+        if (!open) {
+            return;
+        }
+        try {
+            out.write(writer.writeValueAsBytes(value));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            open = false;
+        }
+    }
+}
@@ -1,14 +1,39 @@
 package com.quantum.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.quantum.events.JobEvent;
+import com.quantum.events.JobEventBus;
+import com.quantum.model.BatchRequest;
+import com.quantum.model.JobResult;
+import com.quantum.model.QuantumCircuit;
 import com.quantum.model.QuantumJob;
+import com.quantum.scheduler.SchedulerSaturatedException;
+import com.quantum.service.BatchService;
+import com.quantum.repository.JobRepository;
 import com.quantum.service.QuantumComputingService;
+import com.quantum.simulator.NoiseModel;
+import com.quantum.simulator.Representation;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/quantum")
@@ -16,25 +41,68 @@ import java.util.Map;
 public class QuantumApiController {
     
     private final QuantumComputingService quantumService;
+    private final BatchService batchService;
+    private final JobEventBus events;
+    private final JobProjection projection;
+    private final ObjectWriter lineWriter;
+    private final long sseTimeoutMillis;
 
-    public QuantumApiController(QuantumComputingService quantumService) {
+    public QuantumApiController(QuantumComputingService quantumService, BatchService batchService,
+                                JobEventBus events, ObjectMapper objectMapper,
+                                @Value("${quantum.events.sse-timeout-ms:1800000}") long sseTimeoutMillis) {
         this.quantumService = quantumService;
+        this.batchService = batchService;
+        this.events = events;
+        this.projection = new JobProjection(objectMapper);
+        this.lineWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.sseTimeoutMillis = sseTimeoutMillis;
     }
     
-    @Operation(summary = "Submit a quantum computing job")
+    @Operation(summary = "Submit a quantum computing job (429 with Retry-After when the queue is full)")
     @PostMapping("/jobs")
     public ResponseEntity<QuantumJob> submitJob(
             @RequestHeader("X-User-ID") String userId,
             @RequestParam String algorithm,
             @RequestParam(defaultValue = "SIMULATOR") QuantumJob.Backend backend,
             @RequestParam(defaultValue = "1024") int shots,
+            @RequestParam(defaultValue = "NORMAL") QuantumJob.Priority priority,
             @RequestBody Map<String, Object> parameters) {
         
-        QuantumJob job = quantumService.submitJob(userId, algorithm, backend, parameters, shots);
+        QuantumJob job = quantumService.submitJob(userId, algorithm, backend, parameters, shots, priority);
         return ResponseEntity.ok(job);
     }
     
-    @Operation(summary = "Get job status and results")
+    @Operation(summary = "Run a circuit template or algorithm over a parameter grid as one batch job, "
+            + "streaming each variant's result as NDJSON when it finishes (429 with Retry-After when the queue is full)")
+    @PostMapping(value = "/jobs/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> submitBatch(
+            @RequestHeader("X-User-ID") String userId,
+            @RequestBody BatchRequest request) {
+        
+        BatchService.Batch batch = batchService.prepare(userId, request);
+        batchService.submit(batch);
+        StreamingResponseBody body = out -> {
+            NdjsonSink sink = new NdjsonSink(out, lineWriter);
+            Map<String, Object> header = new LinkedHashMap<>();
+            header.put("batch_id", batch.getParent().getId());
+            header.put("variants", batch.size());
+            sink.write(header);
+            QuantumJob parent = batchService.stream(batch, sink::write);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("batch_id", parent.getId());
+            summary.put("status", parent.getStatus());
+            // a batch cancelled while queued has no results
+            if (parent.getResults() != null) {
+                summary.put("succeeded", parent.getResults().get("succeeded"));
+                summary.put("failed", parent.getResults().get("failed"));
+            }
+            summary.put("execution_time", parent.getExecutionTime());
+            sink.write(summary);
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+    
+    @Operation(summary = "Get job status and results (Accept: application/vnd.quantum.counts for packed counts)")
     @GetMapping("/jobs/{jobId}")
     public ResponseEntity<QuantumJob> getJob(@PathVariable String jobId) {
         QuantumJob job = quantumService.getJob(jobId);
@@ -44,6 +112,46 @@ public class QuantumApiController {
         return ResponseEntity.notFound().build();
     }
     
+    @Operation(summary = "Cancel a queued or running job (409 when it has already finished)")
+    @DeleteMapping("/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> cancelJob(@PathVariable String jobId) {
+        QuantumJob job = quantumService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!quantumService.cancelJob(jobId)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", "Job is already " + job.getStatus(), "job_id", jobId));
+        }
+        return ResponseEntity.ok(Map.of("job_id", jobId, "status", "CANCELLED"));
+    }
+    
+    @Operation(summary = "Stream a job's status changes, progress and final result as Server-Sent Events")
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> jobEvents(@PathVariable String jobId) {
+        if (quantumService.getJob(jobId) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        SseJobStream stream = new SseJobStream(sseTimeoutMillis, lineWriter, true);
+        stream.attach(events.subscribeJob(jobId, stream));
+        // snapshot after subscribing, so a transition in between is seen at least once
+        QuantumJob job = quantumService.getJob(jobId);
+        stream.accept(JobEvent.status(job));
+        if (JobRepository.isTerminal(job.getStatus())) {
+            stream.accept(JobEvent.result(job));
+        }
+        return ResponseEntity.ok(stream.emitter());
+    }
+    
+    @Operation(summary = "Stream status changes, progress and results of all of a user's jobs as Server-Sent Events")
+    @GetMapping(value = "/jobs/user/{userId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter userJobEvents(@PathVariable String userId) {
+        SseJobStream stream = new SseJobStream(sseTimeoutMillis, lineWriter, false);
+        stream.attach(events.subscribeUser(userId, stream));
+        return stream.emitter();
+    }
+    
     @Operation(summary = "Get user's job history")
     @GetMapping("/jobs/user/{userId}")
     public ResponseEntity<List<QuantumJob>> getUserJobs(@PathVariable String userId) {
@@ -51,72 +159,129 @@ public class QuantumApiController {
         return ResponseEntity.ok(jobs);
     }
     
-    @Operation(summary = "Run Grover's search algorithm")
+    @Operation(summary = "Run Grover's search algorithm (markedState may list several states, comma-separated)")
     @PostMapping("/algorithms/grover")
-    public ResponseEntity<Map<String, Object>> runGrover(
+    public ResponseEntity<JobResult> runGrover(
             @RequestParam(defaultValue = "5") int qubits,
             @RequestParam(defaultValue = "10101") String markedState,
-            @RequestParam(defaultValue = "1024") int shots) {
+            @RequestParam(defaultValue = "1024") int shots,
+            @RequestParam(required = false) Long iterations,
+            @RequestParam(defaultValue = "auto") String method,
+            @RequestParam(required = false) Long seed) {
         
-        Map<String, Object> params = Map.of(
+        Map<String, Object> params = new HashMap<>(Map.of(
             "qubits", qubits,
-            "marked_state", markedState
-        );
+            "marked_state", markedState,
+            "method", method
+        ));
+        if (iterations != null) {
+            params.put("iterations", iterations);
+        }
+        params = withSeed(params, seed);
         
-        Map<String, Object> results = quantumService.runQuantumAlgorithm("GROVER", params, shots);
+        JobResult results = quantumService.runCached("GROVER", params, shots);
         return ResponseEntity.ok(results);
     }
     
     @Operation(summary = "Run Shor's factorization algorithm")
     @PostMapping("/algorithms/shor")
-    public ResponseEntity<Map<String, Object>> runShor(
-            @RequestParam int number) {
+    public ResponseEntity<JobResult> runShor(
+            @RequestParam long number,
+            @RequestParam(required = false) Long base,
+            @RequestParam(defaultValue = "16") int shots,
+            @RequestParam(required = false) Long seed) {
         
-        Map<String, Object> params = Map.of("number", number);
-        Map<String, Object> results = quantumService.runQuantumAlgorithm("SHOR", params, 1);
+        Map<String, Object> params = new HashMap<>(Map.of("number", number));
+        if (base != null) {
+            params.put("base", base);
+        }
+        JobResult results = quantumService.runCached("SHOR", withSeed(params, seed), shots);
         return ResponseEntity.ok(results);
     }
     
     @Operation(summary = "Run quantum state vector simulation")
     @PostMapping("/algorithms/state-vector")
-    public ResponseEntity<Map<String, Object>> runStateVector(
-            @RequestParam(defaultValue = "8") int dimensions) {
+    public ResponseEntity<JobResult> runStateVector(
+            @RequestParam(defaultValue = "8") int dimensions,
+            @RequestParam(required = false) Long seed) {
         
-        Map<String, Object> params = Map.of("dimensions", dimensions);
-        Map<String, Object> results = quantumService.runQuantumAlgorithm("QVECTOR", params, 1);
+        Map<String, Object> params = withSeed(Map.of("dimensions", dimensions), seed);
+        JobResult results = quantumService.runCached("QVECTOR", params, 1);
         return ResponseEntity.ok(results);
     }
     
-    @Operation(summary = "Run quantum teleportation protocol")
+    @Operation(summary = "Run quantum teleportation protocol (state: 0, 1, + or -)")
     @PostMapping("/algorithms/teleport")
-    public ResponseEntity<Map<String, Object>> runTeleportation(
-            @RequestParam(defaultValue = "1024") int shots) {
+    public ResponseEntity<JobResult> runTeleportation(
+            @RequestParam(defaultValue = "1") String state,
+            @RequestParam(defaultValue = "1024") int shots,
+            @RequestParam(required = false) Long seed) {
         
-        Map<String, Object> results = quantumService.runQuantumAlgorithm("TELEPORT", Map.of(), shots);
+        JobResult results = quantumService.runCached("TELEPORT", withSeed(Map.of("state", state), seed), shots);
         return ResponseEntity.ok(results);
     }
     
     @Operation(summary = "Generate and run a random quantum circuit")
     @PostMapping("/circuits/random")
-    public ResponseEntity<Map<String, Object>> runRandomCircuit(
+    public ResponseEntity<JobResult> runRandomCircuit(
             @RequestParam(defaultValue = "5") int qubits,
             @RequestParam(defaultValue = "10") int depth,
-            @RequestParam(defaultValue = "1024") int shots) {
+            @RequestParam(defaultValue = "1024") int shots,
+            @RequestParam(required = false) Long seed) {
         
-        Map<String, Object> params = Map.of(
+        Map<String, Object> params = withSeed(Map.of(
             "qubits", qubits,
             "depth", depth
-        );
+        ), seed);
+        
+        JobResult results = quantumService.runCached("RANDOM", params, shots);
+        return ResponseEntity.ok(results);
+    }
+    
+    @Operation(summary = "Simulate a user-defined quantum circuit (representation: auto, dense or sparse)")
+    @PostMapping("/circuits")
+    public ResponseEntity<JobResult> runCircuit(
+            @RequestParam(defaultValue = "1024") int shots,
+            @RequestParam(required = false) Long seed,
+            @RequestParam(defaultValue = "auto") String representation,
+            @RequestBody QuantumCircuit circuit) {
         
-        Map<String, Object> results = quantumService.runQuantumAlgorithm("RANDOM", params, shots);
+        JobResult results = quantumService.runCircuit(circuit, shots, seed, Representation.parse(representation));
         return ResponseEntity.ok(results);
     }
     
-    @Operation(summary = "Get all running and completed jobs")
+    @Operation(summary = "List jobs in creation order, one page at a time (pass next_cursor back as cursor)")
     @GetMapping("/jobs")
-    public ResponseEntity<List<QuantumJob>> getAllJobs() {
-        List<QuantumJob> jobs = quantumService.getAllJobs();
-        return ResponseEntity.ok(jobs);
+    public ResponseEntity<StreamingResponseBody> getJobs(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String fields) {
+        
+        ObjectWriter writer = projection.writer(fields);
+        Map<String, Object> page = quantumService.getJobs(cursor, limit);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> writer.writeValue(out, page));
+    }
+    
+    @Operation(summary = "Stream jobs in creation order as newline-delimited JSON")
+    @GetMapping(value = "/jobs/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamJobs(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields) {
+        
+        ObjectWriter writer = projection.writer(fields).without(SerializationFeature.INDENT_OUTPUT);
+        Stream<QuantumJob> jobs = quantumService.streamJobs(cursor);
+        StreamingResponseBody body = out -> {
+            try (jobs) {
+                Iterator<QuantumJob> it = jobs.iterator();
+                while (it.hasNext()) {
+                    out.write(writer.writeValueAsBytes(it.next()));
+                    out.write('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
     
     @Operation(summary = "Health check with quantum metrics")
@@ -126,26 +291,64 @@ public class QuantumApiController {
             "status", "UP",
             "service", "Quantum Computing API",
             "quantum_backend", "simulator",
-            "max_qubits", 50,
-            "algorithms_supported", List.of("Grover", "Shor", "QVECTOR", "Teleport", "Random"),
+            "max_qubits", quantumService.getQubitLimits(),
+            "algorithms_supported", List.of("Grover", "Shor", "QVECTOR", "Teleport", "Random", "Circuit"),
             "api_version", "1.0.0"
         );
         return ResponseEntity.ok(health);
     }
     
+    @Operation(summary = "Result cache hit/miss statistics")
+    @GetMapping("/system/cache")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        return ResponseEntity.ok(quantumService.getCacheStats());
+    }
+    
+    @Operation(summary = "Job counts by status and average execution time")
+    @GetMapping("/system/stats")
+    public ResponseEntity<Map<String, Object>> statistics() {
+        return ResponseEntity.ok(quantumService.getStatistics());
+    }
+    
     @Operation(summary = "Get quantum system information")
     @GetMapping("/system/info")
     public ResponseEntity<Map<String, Object>> systemInfo() {
         Map<String, Object> info = Map.of(
             "quantum_processor", "Spring Boot Quantum Simulator",
-            "max_qubits_supported", 1024,
-            "gate_set", List.of("H", "X", "Y", "Z", "CNOT", "SWAP", "RX", "RY", "RZ"),
+            "max_qubits", quantumService.getQubitLimits(),
+            "gate_set", List.of("H", "X", "Y", "Z", "S", "T", "CNOT", "SWAP", "RX", "RY", "RZ", "QFT", "IQFT"),
             "entanglement_capability", true,
             "quantum_volume", 2048,
             "coherence_time", "100ms (simulated)",
-            "gate_fidelity", "0.999",
-            "available_backends", List.of("SIMULATOR", "IBM_QUANTUM", "AWS_BRAKET")
+            "gate_fidelity", Arrays.stream(QuantumJob.Backend.values()).collect(Collectors.toMap(
+                    Enum::name, backend -> NoiseModel.forBackend(backend).fidelities(), (a, b) -> a, LinkedHashMap::new)),
+            "available_backends", Arrays.stream(QuantumJob.Backend.values()).map(Enum::name).toList()
         );
         return ResponseEntity.ok(info);
     }
+    
+    private static Map<String, Object> withSeed(Map<String, Object> params, Long seed) {
+        if (seed == null) {
+            return params;
+        }
+        Map<String, Object> seeded = new HashMap<>(params);
+        seeded.put("seed", seed);
+        return seeded;
+    }
+    
+    // Errors are JSON whatever the request accepts, so counts and NDJSON clients get the message instead of a 406
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, Object>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", e.getMessage()));
+    }
+    
+    @ExceptionHandler(SchedulerSaturatedException.class)
+    public ResponseEntity<Map<String, Object>> handleSaturated(SchedulerSaturatedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", e.getMessage(), "retry_after_seconds", e.getRetryAfterSeconds()));
+    }
 }
\ No newline at end of file
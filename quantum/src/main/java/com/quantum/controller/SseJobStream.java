@@ -0,0 +1,101 @@
+package com.quantum.controller;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.quantum.events.JobEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * One Server-Sent Events subscriber. Events from the bus are queued and written by a virtual
+ * thread, so a slow client never holds up the job worker that published them; progress events are
+ * dropped instead of queued once the client falls behind. A single-job stream ends after the job's
+ * result event, so the result is delivered once even if it was also part of the initial snapshot.
+ */
+final class SseJobStream implements Consumer<JobEvent> {
+
+    private static final int MAX_PENDING_PROGRESS = 256;
+    private static final JobEvent CLOSE = new JobEvent(null, null, null, null);
+
+    private final SseEmitter emitter;
+    private final ObjectWriter writer;
+    private final boolean endOnResult;
+    private final BlockingQueue<JobEvent> pending = new LinkedBlockingQueue<>();
+    private volatile AutoCloseable subscription;
+    private volatile boolean closed;
+
+    SseJobStream(long timeoutMillis, ObjectWriter writer, boolean endOnResult) {
+        this.emitter = new SseEmitter(timeoutMillis);
+        this.writer = writer;
+        this.endOnResult = endOnResult;
+        emitter.onCompletion(this::close);
+        emitter.onTimeout(this::close);
+        emitter.onError(e -> close());
+        Thread.ofVirtual().name("sse-job-stream").start(this::drain);
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    void attach(AutoCloseable subscription) {
+        this.subscription = subscription;
+        if (closed) {
+            unsubscribe();
+        }
+    }
+
+    @Override
+    public void accept(JobEvent event) {
+        if (closed || event.type() == JobEvent.Type.PROGRESS && pending.size() >= MAX_PENDING_PROGRESS) {
+            return;
+        }
+        pending.add(event);
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                JobEvent event = pending.take();
+                if (event == CLOSE) {
+                    return;
+                }
+                emitter.send(SseEmitter.event()
+                        .name(event.type().eventName())
+                        .data(writer.writeValueAsString(event.data())));
+                if (endOnResult && event.isFinal()) {
+                    closed = true;
+                    emitter.complete();
+                    return;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // client went away or the emitter already completed
+            emitter.complete();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            close();
+        }
+    }
+
+    private void close() {
+        closed = true;
+        unsubscribe();
+        pending.offer(CLOSE);
+    }
+
+    private void unsubscribe() {
+        AutoCloseable current = subscription;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (Exception ignored) {
+                // unsubscribing only removes a map entry
+            }
+        }
+    }
+}
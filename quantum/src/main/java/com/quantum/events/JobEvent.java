@@ -0,0 +1,49 @@
+package com.quantum.events;
+
+import com.quantum.model.QuantumJob;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Something that happened to a job: a status transition, simulation progress, or the finished job
+ * (sent once, when the job reaches a terminal status). {@code data} is what subscribers receive.
+ */
+public record JobEvent(Type type, String jobId, String userId, Object data) {
+
+    public enum Type {
+        STATUS, PROGRESS, RESULT;
+
+        // SSE event name
+        public String eventName() {
+            return name().toLowerCase();
+        }
+    }
+
+    public static JobEvent status(QuantumJob job) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("job_id", job.getId());
+        data.put("status", job.getStatus());
+        data.put("algorithm", job.getAlgorithm());
+        return new JobEvent(Type.STATUS, job.getId(), job.getUserId(), data);
+    }
+
+    // phase is "simulate" (gates or algorithm rounds), "sample" (shots) or "variants" (finished batch variants)
+    public static JobEvent progress(String jobId, String userId, String phase, int done, int total) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("job_id", jobId);
+        data.put("phase", phase);
+        data.put("done", done);
+        data.put("total", total);
+        data.put("fraction", total > 0 ? (double) done / total : 1.0);
+        return new JobEvent(Type.PROGRESS, jobId, userId, data);
+    }
+
+    public static JobEvent result(QuantumJob job) {
+        return new JobEvent(Type.RESULT, job.getId(), job.getUserId(), job);
+    }
+
+    public boolean isFinal() {
+        return type == Type.RESULT;
+    }
+}
@@ -0,0 +1,83 @@
+package com.quantum.events;
+
+import com.quantum.model.QuantumJob;
+import com.quantum.repository.JobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-process fan-out of {@link JobEvent}s to subscribers of a job or of a user's jobs. Listeners run
+ * on the publishing thread (usually a job worker), so they must only hand the event off; a
+ * listener that throws is dropped.
+ */
+@Component
+public class JobEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(JobEventBus.class);
+
+    private final Map<String, Set<Consumer<JobEvent>>> byJob = new ConcurrentHashMap<>();
+    private final Map<String, Set<Consumer<JobEvent>>> byUser = new ConcurrentHashMap<>();
+
+    public AutoCloseable subscribeJob(String jobId, Consumer<JobEvent> listener) {
+        return subscribe(byJob, jobId, listener);
+    }
+
+    public AutoCloseable subscribeUser(String userId, Consumer<JobEvent> listener) {
+        return subscribe(byUser, userId, listener);
+    }
+
+    // Lets publishers skip building events nobody will receive
+    public boolean hasSubscribers(String jobId, String userId) {
+        return byJob.containsKey(jobId) || userId != null && byUser.containsKey(userId);
+    }
+
+    // Status transition for subscribers; a job reaching a terminal status also goes out once in full
+    public void publishStatus(QuantumJob job) {
+        publish(JobEvent.status(job));
+        if (JobRepository.isTerminal(job.getStatus())) {
+            publish(JobEvent.result(job));
+        }
+    }
+
+    public void publish(JobEvent event) {
+        deliver(byJob, event.jobId(), event);
+        if (event.userId() != null) {
+            deliver(byUser, event.userId(), event);
+        }
+    }
+
+    private static AutoCloseable subscribe(Map<String, Set<Consumer<JobEvent>>> topics, String key,
+                                           Consumer<JobEvent> listener) {
+        topics.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(listener);
+        return () -> unsubscribe(topics, key, listener);
+    }
+
+    private static void unsubscribe(Map<String, Set<Consumer<JobEvent>>> topics, String key,
+                                    Consumer<JobEvent> listener) {
+        topics.computeIfPresent(key, (k, listeners) -> {
+            listeners.remove(listener);
+            return listeners.isEmpty() ? null : listeners;
+        });
+    }
+
+    private static void deliver(Map<String, Set<Consumer<JobEvent>>> topics, String key, JobEvent event) {
+        Set<Consumer<JobEvent>> listeners = topics.get(key);
+        if (listeners == null) {
+            return;
+        }
+        for (Consumer<JobEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                log.debug("Dropping job event listener for {}: {}", key, e.getMessage());
+                unsubscribe(topics, key, listener);
+            }
+        }
+    }
+}
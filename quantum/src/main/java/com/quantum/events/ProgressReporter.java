@@ -0,0 +1,48 @@
+package com.quantum.events;
+
+import com.quantum.simulator.ExecutionMonitor;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes a running job's simulation and sampling progress on the {@link JobEventBus}, at most
+ * once per interval (plus the final step of each phase) and only while someone is subscribed.
+ */
+public class ProgressReporter implements ExecutionMonitor {
+
+    private final JobEventBus bus;
+    private final String jobId;
+    private final String userId;
+    private final long intervalNanos;
+    private final AtomicLong lastPublished;
+
+    public ProgressReporter(JobEventBus bus, String jobId, String userId, long intervalNanos) {
+        this.bus = bus;
+        this.jobId = jobId;
+        this.userId = userId;
+        this.intervalNanos = intervalNanos;
+        this.lastPublished = new AtomicLong(System.nanoTime() - intervalNanos);
+    }
+
+    @Override
+    public void simulated(int done, int total) {
+        report("simulate", done, total);
+    }
+
+    @Override
+    public void sampled(int done, int total) {
+        report("sample", done, total);
+    }
+
+    private void report(String phase, int done, int total) {
+        if (!bus.hasSubscribers(jobId, userId)) {
+            return;
+        }
+        long now = System.nanoTime();
+        long last = lastPublished.get();
+        boolean due = now - last >= intervalNanos && lastPublished.compareAndSet(last, now);
+        if (due || done == total) {
+            bus.publish(JobEvent.progress(jobId, userId, phase, done, total));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.quantum.metrics;
+
+import com.quantum.backend.BackendDispatcher;
+import com.quantum.cache.ResultCache;
+import com.quantum.scheduler.JobScheduler;
+import com.quantum.simulator.StateVectorSimulator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Micrometer instrumentation of the job pipeline. Stage timers ({@code quantum.job.stage}) are
+ * tagged by stage, algorithm and a qubit bucket and publish percentile histograms, so latency can be
+ * broken down per workload in Prometheus. Scheduler, simulator and result-cache state is read on
+ * scrape from the components' own counters rather than duplicated here.
+ */
+@Component
+public class PipelineMetrics {
+
+    public static final String STAGE_TIMER = "quantum.job.stage";
+    public static final String JOBS_COUNTER = "quantum.jobs";
+
+    public enum Stage {
+        QUEUE_WAIT, COMPILE, SIMULATE, SAMPLE, EXECUTE;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private final MeterRegistry registry;
+
+    public PipelineMetrics(MeterRegistry registry, JobScheduler scheduler, BackendDispatcher dispatcher,
+                           StateVectorSimulator simulator, ResultCache cache) {
+        this.registry = registry;
+
+        Gauge.builder("quantum.scheduler.queue.depth", scheduler, JobScheduler::getQueueDepth)
+                .description("Local jobs waiting for a worker").register(registry);
+        Gauge.builder("quantum.scheduler.queue.capacity", scheduler, JobScheduler::getCapacity)
+                .description("Waiting jobs accepted before submissions are rejected").register(registry);
+        Gauge.builder("quantum.scheduler.workers.active", scheduler, JobScheduler::getActiveWorkers)
+                .description("Workers currently running a job").register(registry);
+        Gauge.builder("quantum.scheduler.workers", scheduler, JobScheduler::getWorkerCount)
+                .description("Worker threads").register(registry);
+        Gauge.builder("quantum.backend.remote.in.flight", dispatcher, BackendDispatcher::getRemoteInFlight)
+                .description("Jobs waiting on a remote backend").register(registry);
+
+        FunctionCounter.builder("quantum.simulator.sweeps", simulator, StateVectorSimulator::getSweeps)
+                .description("Gate passes over a state vector").register(registry);
+        FunctionCounter.builder("quantum.simulator.amplitudes", simulator, StateVectorSimulator::getAmplitudesSwept)
+                .description("Amplitudes updated by gate passes").register(registry);
+
+        cacheRequests(cache, "hit", ResultCache::getHits);
+        cacheRequests(cache, "coalesced", ResultCache::getCoalesced);
+        cacheRequests(cache, "miss", ResultCache::getMisses);
+        cacheRequests(cache, "bypass", ResultCache::getBypassed);
+        FunctionCounter.builder("quantum.cache.evictions", cache, ResultCache::getEvictions).register(registry);
+        Gauge.builder("quantum.cache.entries", cache, ResultCache::getEntryCount).register(registry);
+        Gauge.builder("quantum.cache.size", cache, ResultCache::getBytes).baseUnit("bytes").register(registry);
+        Gauge.builder("quantum.cache.max.size", cache, ResultCache::getMaxBytes).baseUnit("bytes").register(registry);
+    }
+
+    private void cacheRequests(ResultCache cache, String result, ToDoubleFunction<ResultCache> count) {
+        FunctionCounter.builder("quantum.cache.requests", cache, count)
+                .tag("result", result)
+                .description("Synchronous runs by how the result cache served them")
+                .register(registry);
+    }
+
+    public void record(Stage stage, String algorithm, int qubits, long nanos) {
+        Timer.builder(STAGE_TIMER)
+                .tag("stage", stage.tag)
+                .tag("algorithm", algorithm.toUpperCase(Locale.ROOT))
+                .tag("qubits", qubitBucket(qubits))
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(10_000))
+                .maximumExpectedValue(Duration.ofMinutes(10))
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Terminal status of a submitted job
+    public void jobFinished(String algorithm, String status) {
+        Counter.builder(JOBS_COUNTER)
+                .tag("algorithm", algorithm.toUpperCase(Locale.ROOT))
+                .tag("status", status.toLowerCase(Locale.ROOT))
+                .register(registry)
+                .increment();
+    }
+
+    // Coarse register-size buckets keep the tag cardinality bounded
+    static String qubitBucket(int qubits) {
+        if (qubits <= 8) {
+            return "1-8";
+        }
+        if (qubits <= 16) {
+            return "9-16";
+        }
+        if (qubits <= 24) {
+            return "17-24";
+        }
+        if (qubits <= 30) {
+            return "25-30";
+        }
+        return "31+";
+    }
+}
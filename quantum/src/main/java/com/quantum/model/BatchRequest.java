@@ -0,0 +1,68 @@
+package com.quantum.model;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A parameter sweep submitted as one batch: either a circuit template whose gate lines name
+ * parameters in braces ("RX 0 {theta}") or an algorithm with base parameters, run once for every
+ * point of the cartesian product of the grid.
+ */
+public class BatchRequest {
+    private String algorithm = "CIRCUIT";
+    private QuantumCircuit circuit;
+    private Map<String, Object> parameters = new HashMap<>();
+    private Map<String, List<Object>> grid = new LinkedHashMap<>();
+    private int shots = 1024;
+    private Long seed;
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public QuantumCircuit getCircuit() {
+        return circuit;
+    }
+
+    public void setCircuit(QuantumCircuit circuit) {
+        this.circuit = circuit;
+    }
+
+    public Map<String, Object> getParameters() {
+        return parameters;
+    }
+
+    public void setParameters(Map<String, Object> parameters) {
+        this.parameters = parameters;
+    }
+
+    public Map<String, List<Object>> getGrid() {
+        return grid;
+    }
+
+    public void setGrid(Map<String, List<Object>> grid) {
+        this.grid = grid;
+    }
+
+    public int getShots() {
+        return shots;
+    }
+
+    public void setShots(int shots) {
+        this.shots = shots;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+}
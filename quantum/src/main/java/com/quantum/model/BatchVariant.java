@@ -0,0 +1,58 @@
+package com.quantum.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.Map;
+
+/**
+ * One grid point of a batch and its outcome: the result, or the error that stopped that variant.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"index", "parameters", "result", "error"})
+public class BatchVariant {
+    private int index;
+    private Map<String, Object> parameters;
+    private JobResult result;
+    private String error;
+
+    public BatchVariant() {
+    }
+
+    public BatchVariant(int index, Map<String, Object> parameters) {
+        this.index = index;
+        this.parameters = parameters;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Map<String, Object> getParameters() {
+        return parameters;
+    }
+
+    public void setParameters(Map<String, Object> parameters) {
+        this.parameters = parameters;
+    }
+
+    public JobResult getResult() {
+        return result;
+    }
+
+    public void setResult(JobResult result) {
+        this.result = result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,71 @@
+package com.quantum.model;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.quantum.sampling.ShotHistogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of running an algorithm. Fields every algorithm shares are typed, so measurement counts
+ * stay a primitive {@link ShotHistogram} until they are written out; algorithm-specific values
+ * (factors, compiler statistics, ...) are named details serialized alongside them in one flat object.
+ */
+@JsonPropertyOrder({"algorithm", "seed", "counts"})
+public class JobResult {
+    private String algorithm;
+    private Long seed;
+    private ShotHistogram counts;
+    private final Map<String, Object> details = new LinkedHashMap<>();
+
+    public JobResult() {
+    }
+
+    public JobResult(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+
+    public ShotHistogram getCounts() {
+        return counts;
+    }
+
+    public void setCounts(ShotHistogram counts) {
+        this.counts = counts;
+    }
+
+    @JsonAnyGetter
+    public Map<String, Object> getDetails() {
+        return details;
+    }
+
+    @JsonAnySetter
+    public void put(String key, Object value) {
+        details.put(key, value);
+    }
+
+    public Object get(String key) {
+        return details.get(key);
+    }
+
+    public Object remove(String key) {
+        return details.remove(key);
+    }
+}
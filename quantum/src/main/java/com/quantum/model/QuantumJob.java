@@ -1,5 +1,7 @@
 package com.quantum.model;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
@@ -13,10 +15,26 @@ public class QuantumJob {
         SIMULATOR, IBM_QUANTUM, AWS_BRAKET, GOOGLE_SYCAMORE
     }
     
+    // HIGH jobs are scheduled first and, when preemption is enabled, may stop a long LOW job
+    public enum Priority {
+        LOW, NORMAL, HIGH
+    }
+    
+    private static final VarHandle STATUS;
+    
+    static {
+        try {
+            STATUS = MethodHandles.lookup().findVarHandle(QuantumJob.class, "status", String.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
     private Backend backend = Backend.SIMULATOR;
-    private String status = "QUEUED"; // QUEUED, RUNNING, COMPLETED, FAILED
+    private Priority priority = Priority.NORMAL;
+    private volatile String status = "QUEUED"; // QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
     private Map<String, Object> parameters = new HashMap<>();
-    private Map<String, Object> results = new HashMap<>();
+    private JobResult results;
     private int shots = 1024;
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime completedAt;
@@ -55,6 +73,14 @@ public class QuantumJob {
         this.backend = backend;
     }
 
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Priority priority) {
+        this.priority = priority != null ? priority : Priority.NORMAL;
+    }
+
     public String getStatus() {
         return status;
     }
@@ -63,6 +89,20 @@ public class QuantumJob {
         this.status = status;
     }
 
+    // Atomic status transition, so a worker finishing a job and a cancel request cannot both win
+    public boolean compareAndSetStatus(String expected, String status) {
+        while (true) {
+            String current = this.status;
+            if (!expected.equals(current)) {
+                return false;
+            }
+            // statuses read back from the job log are equal but not identical to the literals
+            if (STATUS.compareAndSet(this, current, status)) {
+                return true;
+            }
+        }
+    }
+
     public Map<String, Object> getParameters() {
         return parameters;
     }
@@ -71,11 +111,11 @@ public class QuantumJob {
         this.parameters = parameters;
     }
 
-    public Map<String, Object> getResults() {
+    public JobResult getResults() {
         return results;
     }
 
-    public void setResults(Map<String, Object> results) {
+    public void setResults(JobResult results) {
         this.results = results;
     }
 
@@ -0,0 +1,66 @@
+package com.quantum.repository;
+
+import com.quantum.model.QuantumJob;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+@Repository
+@ConditionalOnProperty(name = "quantum.store.type", havingValue = "memory")
+public class InMemoryJobRepository implements JobRepository {
+
+    private final Map<String, QuantumJob> jobs = new ConcurrentHashMap<>();
+    private final JobIndex index = new JobIndex();
+
+    @Override
+    public void save(QuantumJob job) {
+        jobs.put(job.getId(), job);
+        JobRepository.index(index, job);
+    }
+
+    @Override
+    public QuantumJob findById(String id) {
+        return jobs.get(id);
+    }
+
+    @Override
+    public void delete(String id) {
+        jobs.remove(id);
+        index.remove(id);
+    }
+
+    @Override
+    public long count() {
+        return jobs.size();
+    }
+
+    @Override
+    public List<QuantumJob> findByUser(String userId) {
+        return index.idsForUser(userId).stream().map(jobs::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public Stream<QuantumJob> streamAfter(JobIndex.JobRef after) {
+        return index.idsAfter(after).map(jobs::get).filter(Objects::nonNull);
+    }
+
+    @Override
+    public Map<String, Long> countByStatus() {
+        return index.statusCounts();
+    }
+
+    @Override
+    public double averageExecutionTime() {
+        return index.averageExecutionTime();
+    }
+
+    @Override
+    public List<QuantumJob> recoverPending() {
+        return List.of();
+    }
+}
@@ -0,0 +1,168 @@
+package com.quantum.repository;
+
+import com.quantum.model.QuantumJob;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Secondary indexes kept next to a {@link JobRepository}: job ids per user and overall in creation
+ * order, a counter per status adjusted on every transition, and a running execution-time total, so
+ * per-user listings cost O(result), pages resume from a cursor, and statistics cost O(1) instead of
+ * a scan over every job.
+ */
+public final class JobIndex {
+
+    public static final List<String> STATUSES = List.of("QUEUED", "RUNNING", "COMPLETED", "FAILED", "CANCELLED");
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final NavigableSet<JobRef> all = new ConcurrentSkipListSet<>(ORDER);
+    private final Map<String, NavigableSet<JobRef>> byUser = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> byStatus = new ConcurrentHashMap<>();
+    private final DoubleAdder executionSeconds = new DoubleAdder();
+    private final LongAdder timedJobs = new LongAdder();
+
+    // Position of a job in creation order; the cursor form is opaque to API clients
+    public record JobRef(long createdAt, String id) {
+
+        public static JobRef of(QuantumJob job) {
+            return new JobRef(createdAtKey(job.getCreatedAt()), job.getId());
+        }
+
+        public String toCursor() {
+            byte[] raw = (createdAt + ":" + id).getBytes(StandardCharsets.UTF_8);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+        }
+
+        public static JobRef fromCursor(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int colon = raw.indexOf(':');
+                return new JobRef(Long.parseLong(raw.substring(0, colon)), raw.substring(colon + 1));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+    }
+
+    private static final Comparator<JobRef> ORDER =
+            Comparator.comparingLong(JobRef::createdAt).thenComparing(JobRef::id);
+
+    private static final class Entry {
+        final JobRef ref;
+        final String userId;
+        String status;
+        double executionTime;
+
+        Entry(JobRef ref, String userId) {
+            this.ref = ref;
+            this.userId = userId;
+        }
+    }
+
+    public static long createdAtKey(LocalDateTime createdAt) {
+        if (createdAt == null) {
+            return 0L;
+        }
+        return createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + createdAt.getNano();
+    }
+
+    // Inserts a job or moves it to its new status
+    public void record(String id, String userId, long createdAt, String status, double executionTime) {
+        entries.compute(id, (key, entry) -> {
+            if (entry == null) {
+                entry = new Entry(new JobRef(createdAt, id), userId);
+                all.add(entry.ref);
+                byUser.computeIfAbsent(String.valueOf(userId), u -> new ConcurrentSkipListSet<>(ORDER)).add(entry.ref);
+            } else if (status.equals(entry.status)) {
+                return entry;
+            } else {
+                counter(entry.status).decrement();
+            }
+            counter(status).increment();
+            entry.status = status;
+            if (executionTime > 0 && entry.executionTime <= 0) {
+                executionSeconds.add(executionTime);
+                timedJobs.increment();
+                entry.executionTime = executionTime;
+            }
+            return entry;
+        });
+    }
+
+    public void remove(String id) {
+        entries.computeIfPresent(id, (key, entry) -> {
+            counter(entry.status).decrement();
+            all.remove(entry.ref);
+            NavigableSet<JobRef> jobs = byUser.get(String.valueOf(entry.userId));
+            if (jobs != null) {
+                jobs.remove(entry.ref);
+            }
+            if (entry.executionTime > 0) {
+                executionSeconds.add(-entry.executionTime);
+                timedJobs.decrement();
+            }
+            return null;
+        });
+    }
+
+    // Ids of a user's jobs, oldest first
+    public List<String> idsForUser(String userId) {
+        NavigableSet<JobRef> jobs = byUser.get(userId);
+        if (jobs == null) {
+            return List.of();
+        }
+        List<String> ids = new ArrayList<>(jobs.size());
+        for (JobRef ref : jobs) {
+            ids.add(ref.id());
+        }
+        return ids;
+    }
+
+    // Ids of all jobs created after the given position (from the start when null), oldest first;
+    // the walk is lazy and weakly consistent with concurrent saves
+    public Stream<String> idsAfter(JobRef after) {
+        NavigableSet<JobRef> jobs = after == null ? all : all.tailSet(after, false);
+        return jobs.stream().map(JobRef::id);
+    }
+
+    public long countByStatus(String status) {
+        LongAdder adder = byStatus.get(status);
+        return adder != null ? adder.sum() : 0L;
+    }
+
+    public Map<String, Long> statusCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (String status : STATUSES) {
+            counts.put(status, countByStatus(status));
+        }
+        byStatus.forEach((status, adder) -> counts.putIfAbsent(status, adder.sum()));
+        return counts;
+    }
+
+    public double averageExecutionTime() {
+        long n = timedJobs.sum();
+        return n > 0 ? executionSeconds.sum() / n : 0.0;
+    }
+
+    public long size() {
+        return entries.size();
+    }
+
+    private LongAdder counter(String status) {
+        return byStatus.computeIfAbsent(String.valueOf(status), s -> new LongAdder());
+    }
+}
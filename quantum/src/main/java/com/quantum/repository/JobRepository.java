@@ -0,0 +1,45 @@
+package com.quantum.repository;
+
+import com.quantum.model.QuantumJob;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Storage for {@link QuantumJob}s. Callers {@link #save} a job after every state change; jobs that
+ * have not reached a terminal state are kept live in memory so workers can keep mutating them.
+ */
+public interface JobRepository {
+
+    void save(QuantumJob job);
+
+    QuantumJob findById(String id);
+
+    void delete(String id);
+
+    long count();
+
+    // A user's jobs, oldest first
+    List<QuantumJob> findByUser(String userId);
+
+    // Number of jobs in each status, maintained incrementally
+    Map<String, Long> countByStatus();
+
+    double averageExecutionTime();
+
+    // Jobs created after the given position (all jobs when null) in creation order, read lazily
+    Stream<QuantumJob> streamAfter(JobIndex.JobRef after);
+
+    // Jobs that were QUEUED or RUNNING when the previous process stopped
+    List<QuantumJob> recoverPending();
+
+    static void index(JobIndex index, QuantumJob job) {
+        index.record(job.getId(), job.getUserId(), JobIndex.createdAtKey(job.getCreatedAt()),
+                job.getStatus(), job.getExecutionTime());
+    }
+
+    static boolean isTerminal(String status) {
+        return "COMPLETED".equals(status) || "FAILED".equals(status) || "CANCELLED".equals(status);
+    }
+}
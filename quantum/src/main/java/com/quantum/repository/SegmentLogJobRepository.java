@@ -0,0 +1,566 @@
+package com.quantum.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.quantum.model.QuantumJob;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only job log on local disk. Every save appends a record to the active segment; an
+ * in-memory index maps job id to the location of its latest record, and only jobs that are still
+ * QUEUED or RUNNING are held on the heap. Segments roll at a size limit, are fsynced in batches by a
+ * background flusher, and sealed segments that are mostly superseded records are compacted by
+ * copying their live records forward and deleting the file. On startup the log is replayed,
+ * a torn tail is truncated, unfinished jobs are handed back for re-queueing, and the
+ * {@link JobIndex} is rebuilt from record headers without parsing the job JSON. Tombstones only
+ * count as live bytes while an older segment may still hold the deleted job.
+ * <p>
+ * Record layout: {@code int bodyLength | int crc32(body) | body}, where body is
+ * {@code byte type | byte status | short idLength | id (UTF-8) | short userLength | user (UTF-8) |
+ * long createdAt | double executionTime | job JSON}; tombstones have an empty user and no JSON.
+ */
+@Repository
+@ConditionalOnProperty(name = "quantum.store.type", havingValue = "log", matchIfMissing = true)
+public class SegmentLogJobRepository implements JobRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(SegmentLogJobRepository.class);
+
+    private static final byte TYPE_TOMBSTONE = 2;
+    private static final byte TYPE_JOB_INDEXED = 3;
+    private static final int HEADER_BYTES = 8;
+    // type, status, id and user lengths, createdAt and executionTime
+    private static final int MIN_BODY_BYTES = 22;
+    private static final List<String> STATUSES = JobIndex.STATUSES;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final double compactionThreshold;
+    private final ObjectMapper mapper;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Map<String, Long> index = new ConcurrentHashMap<>();
+    private final Map<String, QuantumJob> live = new ConcurrentHashMap<>();
+    private final JobIndex jobIndex = new JobIndex();
+    private final ConcurrentSkipListMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+    private final List<QuantumJob> recovered = new ArrayList<>();
+    private final ScheduledExecutorService maintenance;
+    private final long fsyncIntervalMillis;
+    private final long compactionIntervalMillis;
+    private volatile Segment active;
+    private volatile boolean dirty;
+
+    public SegmentLogJobRepository(ObjectMapper objectMapper,
+                                   @Value("${quantum.store.directory:data/jobs}") String directory,
+                                   @Value("${quantum.store.segment-bytes:67108864}") long segmentBytes,
+                                   @Value("${quantum.store.fsync-interval-ms:200}") long fsyncIntervalMillis,
+                                   @Value("${quantum.store.compaction-interval-ms:60000}") long compactionIntervalMillis,
+                                   @Value("${quantum.store.compaction-threshold:0.5}") double compactionThreshold) {
+        this.mapper = objectMapper.copy().disable(SerializationFeature.INDENT_OUTPUT);
+        this.directory = Path.of(directory);
+        this.segmentBytes = Math.min(segmentBytes, Integer.MAX_VALUE);
+        this.compactionThreshold = compactionThreshold;
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+        this.compactionIntervalMillis = compactionIntervalMillis;
+        try {
+            Files.createDirectories(this.directory);
+            replay();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open job log in " + this.directory.toAbsolutePath(), e);
+        }
+
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "job-log-maintenance");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        maintenance.scheduleWithFixedDelay(this::flushQuietly, fsyncIntervalMillis, fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+        maintenance.scheduleWithFixedDelay(this::compactQuietly, compactionIntervalMillis, compactionIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void save(QuantumJob job) {
+        writeLock.lock();
+        try {
+            // serialized under the lock so a stale snapshot can never be appended after a newer one;
+            // a status that changed while serializing is serialized again, keeping header and JSON in step
+            String status;
+            byte[] json;
+            do {
+                status = job.getStatus();
+                json = serialize(job);
+            } while (!Objects.equals(status, job.getStatus()));
+            long location = append(encode(job, status, json), true);
+            release(index.put(job.getId(), location));
+            jobIndex.record(job.getId(), job.getUserId(), JobIndex.createdAtKey(job.getCreatedAt()), status,
+                    job.getExecutionTime());
+            if (JobRepository.isTerminal(status)) {
+                live.remove(job.getId());
+            } else {
+                live.put(job.getId(), job);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public QuantumJob findById(String id) {
+        QuantumJob job = live.get(id);
+        if (job != null) {
+            return job;
+        }
+        // compaction may move the record between reading the index and reading the file
+        for (int attempt = 0; attempt < 3; attempt++) {
+            Long location = index.get(id);
+            if (location == null) {
+                return null;
+            }
+            try {
+                return readJob(location);
+            } catch (ClosedChannelException | SegmentGoneException e) {
+                // retry with the new location
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read job " + id, e);
+            }
+        }
+        return live.get(id);
+    }
+
+    @Override
+    public void delete(String id) {
+        ByteBuffer record = encode(TYPE_TOMBSTONE, (byte) -1, id, "", 0L, 0.0, new byte[0]);
+        writeLock.lock();
+        try {
+            append(record, false);
+            release(index.remove(id));
+            live.remove(id);
+            jobIndex.remove(id);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public long count() {
+        return index.size();
+    }
+
+    @Override
+    public List<QuantumJob> findByUser(String userId) {
+        return jobIndex.idsForUser(userId).stream().map(this::findById).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public Stream<QuantumJob> streamAfter(JobIndex.JobRef after) {
+        return jobIndex.idsAfter(after).map(this::findById).filter(Objects::nonNull);
+    }
+
+    @Override
+    public Map<String, Long> countByStatus() {
+        return jobIndex.statusCounts();
+    }
+
+    @Override
+    public double averageExecutionTime() {
+        return jobIndex.averageExecutionTime();
+    }
+
+
+    @Override
+    public List<QuantumJob> recoverPending() {
+        synchronized (recovered) {
+            List<QuantumJob> jobs = new ArrayList<>(recovered);
+            recovered.clear();
+            return jobs;
+        }
+    }
+
+    // ---- writing ----
+
+    private byte[] serialize(QuantumJob job) {
+        try {
+            return mapper.writeValueAsBytes(job);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not serialize job " + job.getId(), e);
+        }
+    }
+
+    private static ByteBuffer encode(QuantumJob job, String status, byte[] json) {
+        return encode(TYPE_JOB_INDEXED, statusCode(status), job.getId(), String.valueOf(job.getUserId()),
+                JobIndex.createdAtKey(job.getCreatedAt()), job.getExecutionTime(), json);
+    }
+
+    private static ByteBuffer encode(byte type, byte status, String id, String userId, long createdAt,
+                                     double executionTime, byte[] json) {
+        byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        byte[] user = userId.getBytes(StandardCharsets.UTF_8);
+        int bodyLength = 4 + idBytes.length + 2 + user.length + 16 + json.length;
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + bodyLength);
+        record.putInt(bodyLength).putInt(0)
+                .put(type).put(status).putShort((short) idBytes.length).put(idBytes)
+                .putShort((short) user.length).put(user).putLong(createdAt).putDouble(executionTime)
+                .put(json);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), HEADER_BYTES, bodyLength);
+        record.putInt(4, (int) crc.getValue());
+        return record.flip();
+    }
+
+    private static byte statusCode(String status) {
+        int code = STATUSES.indexOf(status);
+        return (byte) (code >= 0 ? code : STATUSES.size());
+    }
+
+    // Appends an encoded record to the active segment, counting it towards the segment's live bytes
+    // when `live`; caller holds the write lock
+    private long append(ByteBuffer record, boolean live) {
+        int length = record.remaining();
+        try {
+            if (active.size.get() > 0 && active.size.get() + length > segmentBytes) {
+                roll();
+            }
+            long offset = active.size.get();
+            writeFully(active.channel, record, offset);
+            active.size.addAndGet(length);
+            if (live) {
+                active.liveBytes.addAndGet(length);
+            }
+            dirty = true;
+            return location(active.id, offset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to job log", e);
+        }
+    }
+
+    private void roll() throws IOException {
+        active.channel.force(false);
+        active = openSegment(active.id + 1);
+        log.debug("Job log rolled to segment {}", active.id);
+    }
+
+    // Marks the record at a superseded location as garbage in its segment
+    private void release(Long location) {
+        if (location == null) {
+            return;
+        }
+        Segment segment = segments.get(segmentOf(location));
+        if (segment == null) {
+            return;
+        }
+        try {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            readFully(segment.channel, header, offsetOf(location));
+            segment.liveBytes.addAndGet(-(HEADER_BYTES + header.getInt(0)));
+        } catch (IOException e) {
+            log.warn("Could not account superseded record in segment {}: {}", segment.id, e.getMessage());
+        }
+    }
+
+    // ---- reading ----
+
+    private QuantumJob readJob(long location) throws IOException {
+        Segment segment = segments.get(segmentOf(location));
+        if (segment == null) {
+            throw new SegmentGoneException();
+        }
+        Record record = readRecord(segment, offsetOf(location), segment.size.get());
+        if (record == null || !record.isJob()) {
+            throw new IOException("Corrupt record at segment " + segment.id + " offset " + offsetOf(location));
+        }
+        return mapper.readValue(record.body, record.jsonOffset, record.body.length - record.jsonOffset, QuantumJob.class);
+    }
+
+    // Returns null when the bytes at offset are not a complete, intact record
+    private static Record readRecord(Segment segment, long offset, long limit) throws IOException {
+        if (offset + HEADER_BYTES > limit) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(segment.channel, header, offset);
+        int bodyLength = header.getInt(0);
+        if (bodyLength < MIN_BODY_BYTES || offset + HEADER_BYTES + bodyLength > limit) {
+            return null;
+        }
+        byte[] body = new byte[bodyLength];
+        readFully(segment.channel, ByteBuffer.wrap(body), offset + HEADER_BYTES);
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        if ((int) crc.getValue() != header.getInt(4)) {
+            return null;
+        }
+        return new Record(body);
+    }
+
+    // ---- recovery ----
+
+    private void replay() throws IOException {
+        List<Integer> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.matches("segment-\\d+\\.log"))
+                    .forEach(name -> ids.add(Integer.parseInt(name.substring(8, name.length() - 4))));
+        }
+        ids.sort(null);
+
+        Set<String> pending = new LinkedHashSet<>();
+        for (int id : ids) {
+            Segment segment = openSegment(id);
+            long size = segment.channel.size();
+            long offset = 0;
+            Record record;
+            while ((record = readRecord(segment, offset, size)) != null) {
+                long location = location(id, offset);
+                int length = HEADER_BYTES + record.body.length;
+                if (record.isJob()) {
+                    release(index.put(record.id, location));
+                    segment.liveBytes.addAndGet(length);
+                    indexRecord(record);
+                    if (record.status < 2) {
+                        pending.add(record.id);
+                    } else {
+                        pending.remove(record.id);
+                    }
+                } else {
+                    release(index.remove(record.id));
+                    jobIndex.remove(record.id);
+                    pending.remove(record.id);
+                }
+                offset += length;
+            }
+            if (offset < size) {
+                log.warn("Truncating torn tail of job log segment {} at {} of {} bytes", id, offset, size);
+                segment.channel.truncate(offset);
+            }
+            segment.size.set(offset);
+        }
+        if (active == null) {
+            active = openSegment(1);
+        }
+
+        for (String id : pending) {
+            QuantumJob job = readJob(index.get(id));
+            live.put(id, job);
+            recovered.add(job);
+        }
+        log.info("Job log replayed: {} jobs in {} segments, {} unfinished", index.size(), segments.size(), pending.size());
+    }
+
+    private void indexRecord(Record record) {
+        String status = record.status >= 0 && record.status < STATUSES.size() ? STATUSES.get(record.status) : "UNKNOWN";
+        jobIndex.record(record.id, record.userId, record.createdAt, status, record.executionTime);
+    }
+
+    private Segment openSegment(int id) throws IOException {
+        Path path = directory.resolve(String.format("segment-%06d.log", id));
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Segment segment = new Segment(id, path, channel);
+        segment.size.set(channel.size());
+        segments.put(id, segment);
+        active = segment;
+        return segment;
+    }
+
+    // ---- maintenance ----
+
+    public void flush() throws IOException {
+        if (dirty) {
+            dirty = false;
+            active.channel.force(false);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            dirty = true;
+            log.error("Job log fsync failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (IOException | RuntimeException e) {
+            log.error("Job log compaction failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // Rewrites the live records of sealed, mostly-garbage segments (oldest first) and deletes them
+    public void compact() throws IOException {
+        for (Segment segment : new ArrayList<>(segments.values())) {
+            if (segment == active) {
+                break;
+            }
+            if (segment.liveBytes.get() > compactionThreshold * segment.size.get()) {
+                continue;
+            }
+            long moved = 0;
+            long offset = 0;
+            long size = segment.size.get();
+            Record record;
+            while ((record = readRecord(segment, offset, size)) != null) {
+                long location = location(segment.id, offset);
+                int length = HEADER_BYTES + record.body.length;
+                ByteBuffer raw = ByteBuffer.allocate(length);
+                readFully(segment.channel, raw, offset);
+                raw.flip();
+                writeLock.lock();
+                try {
+                    if (record.isJob() && Long.valueOf(location).equals(index.get(record.id))) {
+                        index.put(record.id, append(raw, true));
+                        moved += length;
+                    } else if (record.type == TYPE_TOMBSTONE && !index.containsKey(record.id)
+                            && segments.firstKey() < segment.id) {
+                        // older segments may still hold the deleted job, so the tombstone must survive
+                        append(raw, false);
+                    }
+                } finally {
+                    writeLock.unlock();
+                }
+                offset += length;
+            }
+            writeLock.lock();
+            try {
+                flush();
+                segments.remove(segment.id);
+                segment.channel.close();
+                Files.deleteIfExists(segment.path);
+            } finally {
+                writeLock.unlock();
+            }
+            log.info("Compacted job log segment {}: {} of {} bytes still live", segment.id, moved, size);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        maintenance.shutdown();
+        writeLock.lock();
+        try {
+            flush();
+            for (Segment segment : segments.values()) {
+                segment.channel.close();
+            }
+        } catch (IOException e) {
+            log.error("Could not close job log cleanly: {}", e.getMessage(), e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // ---- helpers ----
+
+    private static long location(int segment, long offset) {
+        return ((long) segment << 32) | offset;
+    }
+
+    private static int segmentOf(long location) {
+        return (int) (location >>> 32);
+    }
+
+    private static long offsetOf(long location) {
+        return location & 0xFFFFFFFFL;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position);
+            if (n < 0) {
+                throw new IOException("Unexpected end of job log segment");
+            }
+            position += n;
+        }
+    }
+
+    private static final class Segment {
+        final int id;
+        final Path path;
+        final FileChannel channel;
+        final AtomicLong size = new AtomicLong();
+        final AtomicLong liveBytes = new AtomicLong();
+
+        Segment(int id, Path path, FileChannel channel) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+        }
+    }
+
+    private static final class Record {
+        final byte[] body;
+        final byte type;
+        final byte status;
+        final String id;
+        final String userId;
+        final long createdAt;
+        final double executionTime;
+        final int jsonOffset;
+
+        Record(byte[] body) {
+            ByteBuffer buffer = ByteBuffer.wrap(body);
+            this.body = body;
+            this.type = buffer.get();
+            this.status = buffer.get();
+            int idLength = buffer.getShort() & 0xFFFF;
+            this.id = new String(body, 4, idLength, StandardCharsets.UTF_8);
+            buffer.position(4 + idLength);
+            int userLength = buffer.getShort() & 0xFFFF;
+            this.userId = new String(body, buffer.position(), userLength, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + userLength);
+            this.createdAt = buffer.getLong();
+            this.executionTime = buffer.getDouble();
+            this.jsonOffset = buffer.position();
+        }
+
+        boolean isJob() {
+            return type == TYPE_JOB_INDEXED;
+        }
+    }
+
+    private static final class SegmentGoneException extends IOException {
+        private static final long serialVersionUID = 1L;
+    }
+}
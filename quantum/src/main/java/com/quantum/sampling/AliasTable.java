@@ -0,0 +1,78 @@
+package com.quantum.sampling;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Walker/Vose alias table: O(N) to build, O(1) per draw with a single uniform.
+ */
+public final class AliasTable {
+
+    private final double[] threshold;
+    private final int[] alias;
+
+    private AliasTable(double[] threshold, int[] alias) {
+        this.threshold = threshold;
+        this.alias = alias;
+    }
+
+    public static AliasTable build(ProbabilityDistribution distribution) {
+        int n = distribution.size();
+        double[] scaled = new double[n];
+        distribution.probabilities(scaled, 0, n);
+        double total = 0.0;
+        for (int i = 0; i < n; i++) {
+            total += scaled[i];
+        }
+        if (!(total > 0.0)) {
+            throw new IllegalArgumentException("Distribution has no probability mass");
+        }
+
+        int[] alias = new int[n];
+        // small indices fill the worklist from the front, large ones from the back
+        int[] work = new int[n];
+        int small = 0;
+        int large = n;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = scaled[i] * n / total;
+            if (scaled[i] < 1.0) {
+                work[small++] = i;
+            } else {
+                work[--large] = i;
+            }
+        }
+        while (small > 0 && large < n) {
+            int s = work[--small];
+            int l = work[large];
+            alias[s] = l;
+            scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+            if (scaled[l] < 1.0) {
+                large++;
+                work[small++] = l;
+            }
+        }
+        // whatever is left is 1.0 up to rounding
+        while (small > 0) {
+            int s = work[--small];
+            scaled[s] = 1.0;
+            alias[s] = s;
+        }
+        for (int i = large; i < n; i++) {
+            scaled[work[i]] = 1.0;
+            alias[work[i]] = work[i];
+        }
+        return new AliasTable(scaled, alias);
+    }
+
+    public int size() {
+        return alias.length;
+    }
+
+    public int sample(RandomGenerator random) {
+        double u = random.nextDouble() * alias.length;
+        int column = (int) u;
+        if (column >= alias.length) {
+            column = alias.length - 1;
+        }
+        return u - column < threshold[column] ? column : alias[column];
+    }
+}
@@ -0,0 +1,207 @@
+package com.quantum.sampling;
+
+import com.quantum.simulator.ParallelSweep;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * Draws measurement shots from a distribution. Small state spaces get an alias table and a dense
+ * hit array; larger ones are sampled by sorting the shot uniforms and walking the cumulative
+ * distribution once, which needs O(shots) memory instead of O(2^n).
+ * <p>
+ * Shots are drawn in fixed-size chunks, each from its own split of the job generator, so chunks run
+ * in parallel on the caller's {@link ParallelSweep} (the simulator's pool, never the common pool) and
+ * the outcome for a given seed does not depend on how many cores are available.
+ * An optional {@code progress} callback receives the number of shots in each finished chunk.
+ */
+public final class MeasurementSampler {
+
+    public static final int ALIAS_MAX_STATES = 1 << 22;
+    public static final int CHUNK_SHOTS = 1 << 16;
+    public static final IntConsumer NO_PROGRESS = shots -> {
+    };
+
+    @FunctionalInterface
+    public interface ShotDraw {
+        long draw(RandomGenerator random);
+    }
+
+    @FunctionalInterface
+    private interface UniformFill {
+        void fill(RandomGenerator random, int from, int to);
+    }
+
+    private MeasurementSampler() {
+    }
+
+    public static ShotHistogram sample(ProbabilityDistribution distribution, int qubits, int shots,
+                                       SplittableGenerator random, ParallelSweep sweep) {
+        return sample(distribution, qubits, shots, random, sweep, NO_PROGRESS);
+    }
+
+    public static ShotHistogram sample(ProbabilityDistribution distribution, int qubits, int shots,
+                                       SplittableGenerator random, ParallelSweep sweep, IntConsumer progress) {
+        if (shots <= 0) {
+            return new ShotHistogram(qubits, new long[0], new int[0]);
+        }
+        if (distribution.size() <= ALIAS_MAX_STATES) {
+            return sampleAlias(distribution, qubits, shots, random, sweep, progress);
+        }
+        return sampleSweep(distribution, qubits, shots, random, sweep, progress);
+    }
+
+    // Sparse distribution: probabilities[i] belongs to basis state states[i], with states ascending
+    public static ShotHistogram sample(long[] states, double[] probabilities, int qubits, int shots,
+                                       SplittableGenerator random, ParallelSweep sweep) {
+        return sample(states, probabilities, qubits, shots, random, sweep, NO_PROGRESS);
+    }
+
+    public static ShotHistogram sample(long[] states, double[] probabilities, int qubits, int shots,
+                                       SplittableGenerator random, ParallelSweep sweep, IntConsumer progress) {
+        ShotHistogram byPosition = sample(ProbabilityDistribution.of(probabilities), qubits, shots, random, sweep,
+                progress);
+        long[] outcomes = new long[byPosition.distinctStates()];
+        int[] counts = new int[outcomes.length];
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = states[(int) byPosition.state(i)];
+            counts[i] = byPosition.count(i);
+        }
+        return new ShotHistogram(qubits, outcomes, counts);
+    }
+
+    // Draws `shots` basis states in parallel chunks and collects them into a histogram
+    public static ShotHistogram sample(int qubits, int shots, SplittableGenerator random, ParallelSweep sweep,
+                                       ShotDraw draw) {
+        return sample(qubits, shots, random, sweep, draw, NO_PROGRESS);
+    }
+
+    public static ShotHistogram sample(int qubits, int shots, SplittableGenerator random, ParallelSweep sweep,
+                                       ShotDraw draw, IntConsumer progress) {
+        long[] draws = new long[Math.max(0, shots)];
+        inChunks(shots, random, sweep, progress, (rng, from, to) -> {
+            for (int i = from; i < to; i++) {
+                draws[i] = draw.draw(rng);
+            }
+        });
+        return ShotHistogram.fromDraws(qubits, draws, draws.length);
+    }
+
+    static ShotHistogram sampleAlias(ProbabilityDistribution distribution, int qubits, int shots,
+                                     SplittableGenerator random, ParallelSweep sweep, IntConsumer progress) {
+        AliasTable table = AliasTable.build(distribution);
+        int[] draws = new int[shots];
+        inChunks(shots, random, sweep, progress, (rng, from, to) -> {
+            for (int i = from; i < to; i++) {
+                draws[i] = table.sample(rng);
+            }
+        });
+        int[] hits = new int[table.size()];
+        for (int d : draws) {
+            hits[d]++;
+        }
+        return ShotHistogram.fromDense(qubits, hits);
+    }
+
+    private static void inChunks(int shots, SplittableGenerator random, ParallelSweep sweep, IntConsumer progress,
+                                 UniformFill fill) {
+        int chunks = (shots + CHUNK_SHOTS - 1) / CHUNK_SHOTS;
+        SplittableGenerator[] streams = new SplittableGenerator[chunks];
+        for (int c = 0; c < chunks; c++) {
+            streams[c] = random.split();
+        }
+        sweep.run(chunks, CHUNK_SHOTS, (first, last) -> {
+            for (int c = first; c < last; c++) {
+                int from = c * CHUNK_SHOTS;
+                int to = Math.min(shots, (c + 1) * CHUNK_SHOTS);
+                fill.fill(streams[c], from, to);
+                progress.accept(to - from);
+            }
+        });
+    }
+
+    static ShotHistogram sampleSweep(ProbabilityDistribution distribution, int qubits, int shots,
+                                     SplittableGenerator random, ParallelSweep sweep, IntConsumer progress) {
+        int size = distribution.size();
+        double total = 0.0;
+        for (int i = 0; i < size; i++) {
+            total += distribution.probability(i);
+        }
+        double scale = total;
+        double[] unsorted = new double[shots];
+        inChunks(shots, random, sweep, progress, (rng, from, to) -> {
+            for (int i = from; i < to; i++) {
+                unsorted[i] = rng.nextDouble() * scale;
+            }
+            Arrays.sort(unsorted, from, to);
+        });
+        double[] draws = mergeRuns(unsorted, CHUNK_SHOTS, sweep);
+
+        long[] states = new long[Math.min(shots, size)];
+        int[] counts = new int[states.length];
+        int distinct = 0;
+        int lastNonZero = -1;
+        double cumulative = 0.0;
+        int s = 0;
+        for (int i = 0; i < size && s < shots; i++) {
+            double p = distribution.probability(i);
+            if (p == 0.0) {
+                continue;
+            }
+            lastNonZero = i;
+            cumulative += p;
+            int hits = 0;
+            while (s < shots && draws[s] < cumulative) {
+                hits++;
+                s++;
+            }
+            if (hits > 0) {
+                states[distinct] = i;
+                counts[distinct++] = hits;
+            }
+        }
+        if (s < shots) {
+            // rounding left the last draws past the final non-zero probability
+            if (distinct > 0 && states[distinct - 1] == lastNonZero) {
+                counts[distinct - 1] += shots - s;
+            } else {
+                states[distinct] = lastNonZero;
+                counts[distinct++] = shots - s;
+            }
+        }
+        return new ShotHistogram(qubits, Arrays.copyOf(states, distinct), Arrays.copyOf(counts, distinct));
+    }
+
+    // Merges sorted runs of length `run` pairwise on the sweep's pool, doubling the run length each round
+    private static double[] mergeRuns(double[] values, int run, ParallelSweep sweep) {
+        int n = values.length;
+        double[] source = values;
+        double[] target = new double[n];
+        for (long width = run; width < n; width *= 2) {
+            long half = width;
+            long span = 2 * width;
+            int pairs = (int) ((n + span - 1) / span);
+            double[] from = source;
+            double[] to = target;
+            sweep.run(pairs, span, (first, last) -> {
+                for (int p = first; p < last; p++) {
+                    int lo = (int) (p * span);
+                    merge(from, to, lo, (int) Math.min(lo + half, n), (int) Math.min(lo + span, n));
+                }
+            });
+            source = to;
+            target = from;
+        }
+        return source;
+    }
+
+    private static void merge(double[] from, double[] to, int lo, int mid, int hi) {
+        int i = lo;
+        int j = mid;
+        for (int k = lo; k < hi; k++) {
+            to[k] = j >= hi || (i < mid && from[i] <= from[j]) ? from[i++] : from[j++];
+        }
+    }
+}
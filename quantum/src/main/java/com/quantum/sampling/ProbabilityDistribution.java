@@ -0,0 +1,33 @@
+package com.quantum.sampling;
+
+/**
+ * Measurement distribution over the computational basis, indexed by basis state.
+ * Probabilities need not be normalised; samplers divide by their sum.
+ */
+public interface ProbabilityDistribution {
+
+    int size();
+
+    double probability(int index);
+
+    // probability(i) into out[i] for i in [from, to); dense states override this with a bulk kernel
+    default void probabilities(double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = probability(i);
+        }
+    }
+
+    static ProbabilityDistribution of(double... probabilities) {
+        return new ProbabilityDistribution() {
+            @Override
+            public int size() {
+                return probabilities.length;
+            }
+
+            @Override
+            public double probability(int index) {
+                return probabilities[index];
+            }
+        };
+    }
+}
@@ -0,0 +1,150 @@
+package com.quantum.sampling;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Measurement counts keyed by basis-state index, stored as parallel primitive arrays sorted by state.
+ * Bitstring keys are only produced when the histogram is serialized.
+ */
+public final class ShotHistogram {
+
+    private final int qubits;
+    private final long[] states;
+    private final int[] counts;
+    private final int shots;
+
+    public ShotHistogram(int qubits, long[] states, int[] counts) {
+        this.qubits = qubits;
+        this.states = states;
+        this.counts = counts;
+        int total = 0;
+        for (int c : counts) {
+            total += c;
+        }
+        this.shots = total;
+    }
+
+    // hits[i] is the number of shots that landed on basis state i
+    public static ShotHistogram fromDense(int qubits, int[] hits) {
+        int distinct = 0;
+        for (int h : hits) {
+            if (h > 0) {
+                distinct++;
+            }
+        }
+        long[] states = new long[distinct];
+        int[] counts = new int[distinct];
+        int j = 0;
+        for (int i = 0; i < hits.length; i++) {
+            if (hits[i] > 0) {
+                states[j] = i;
+                counts[j++] = hits[i];
+            }
+        }
+        return new ShotHistogram(qubits, states, counts);
+    }
+
+    // Sorts the first `length` draws in place and run-length encodes them
+    public static ShotHistogram fromDraws(int qubits, long[] draws, int length) {
+        Arrays.sort(draws, 0, length);
+        int distinct = 0;
+        for (int i = 0; i < length; i++) {
+            if (i == 0 || draws[i] != draws[i - 1]) {
+                distinct++;
+            }
+        }
+        long[] states = new long[distinct];
+        int[] counts = new int[distinct];
+        int j = -1;
+        for (int i = 0; i < length; i++) {
+            if (i == 0 || draws[i] != draws[i - 1]) {
+                states[++j] = draws[i];
+            }
+            counts[j]++;
+        }
+        return new ShotHistogram(qubits, states, counts);
+    }
+
+    // Inverse of toCounts(), used when stored results are read back
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static ShotHistogram fromCounts(Map<String, Integer> bitCounts) {
+        int qubits = 0;
+        TreeMap<Long, Integer> sorted = new TreeMap<>();
+        for (Map.Entry<String, Integer> e : bitCounts.entrySet()) {
+            qubits = Math.max(qubits, e.getKey().length());
+            sorted.merge(Long.parseLong(e.getKey(), 2), e.getValue(), Integer::sum);
+        }
+        long[] states = new long[sorted.size()];
+        int[] counts = new int[sorted.size()];
+        int i = 0;
+        for (Map.Entry<Long, Integer> e : sorted.entrySet()) {
+            states[i] = e.getKey();
+            counts[i++] = e.getValue();
+        }
+        return new ShotHistogram(qubits, states, counts);
+    }
+
+    public int getQubits() {
+        return qubits;
+    }
+
+    public int getShots() {
+        return shots;
+    }
+
+    public int distinctStates() {
+        return states.length;
+    }
+
+    public long state(int i) {
+        return states[i];
+    }
+
+    public int count(int i) {
+        return counts[i];
+    }
+
+    public int countOf(long state) {
+        int i = Arrays.binarySearch(states, state);
+        return i >= 0 ? counts[i] : 0;
+    }
+
+    public double averageHammingWeight() {
+        if (shots == 0) {
+            return 0.0;
+        }
+        long ones = 0;
+        for (int i = 0; i < states.length; i++) {
+            ones += (long) Long.bitCount(states[i]) * counts[i];
+        }
+        return (double) ones / shots;
+    }
+
+    @JsonValue
+    public Map<String, Integer> toCounts() {
+        Map<String, Integer> map = new LinkedHashMap<>(Math.max(16, states.length * 4 / 3 + 1));
+        for (int i = 0; i < states.length; i++) {
+            map.put(toBitString(states[i], qubits), counts[i]);
+        }
+        return map;
+    }
+
+    public static String toBitString(long index, int qubits) {
+        char[] bits = new char[qubits];
+        for (int q = 0; q < qubits; q++) {
+            bits[qubits - 1 - q] = ((index >>> q) & 1L) == 1L ? '1' : '0';
+        }
+        return new String(bits);
+    }
+
+    @Override
+    public String toString() {
+        return toCounts().toString();
+    }
+}
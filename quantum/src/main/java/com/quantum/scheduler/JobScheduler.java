@@ -0,0 +1,245 @@
+package com.quantum.scheduler;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded job queue with per-user fairness. Each user accumulates the estimated cost of the work
+ * dispatched for them; the next job comes from the waiting user with the least cost served so far,
+ * and within a user the cheapest job runs first. A user returning from idle starts at the current
+ * virtual time, so past usage is not banked. Priority comes before fairness: a waiting job of a
+ * higher priority always runs before any lower one. When the queue is full, submissions are
+ * refused rather than buffered.
+ */
+@Component
+public class JobScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(JobScheduler.class);
+
+    private static final Comparator<ScheduledJob> ORDER =
+            Comparator.comparingInt((ScheduledJob j) -> -j.priority)
+                    .thenComparingDouble(j -> j.cost)
+                    .thenComparingLong(j -> j.sequence);
+
+    private final int capacity;
+    private final List<Thread> workers = new ArrayList<>();
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Map<String, UserQueue> users = new HashMap<>();
+    private final Map<String, ScheduledJob> pendingById = new HashMap<>();
+    private long sequence;
+    private double virtualTime;
+    private boolean running = true;
+
+    // exponentially weighted mean job run time, used to suggest a Retry-After
+    private volatile double averageRunSeconds = 1.0;
+
+    public JobScheduler(@Value("${quantum.scheduler.workers:0}") int workers,
+                        @Value("${quantum.scheduler.queue-capacity:1000}") int capacity) {
+        this.capacity = capacity;
+        int count = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < count; i++) {
+            Thread worker = new Thread(this::workerLoop, "quantum-worker-" + (i + 1));
+            worker.setDaemon(true);
+            this.workers.add(worker);
+            worker.start();
+        }
+        log.info("Job scheduler started: {} workers, queue capacity {}", count, capacity);
+    }
+
+    // Higher `priority` values run first
+    public void submit(String jobId, String userId, double cost, int priority, Runnable task) {
+        lock.lock();
+        try {
+            if (!running) {
+                throw new IllegalStateException("Scheduler is shut down");
+            }
+            if (pendingById.size() >= capacity) {
+                throw new SchedulerSaturatedException(capacity, retryAfterSeconds());
+            }
+            UserQueue user = users.computeIfAbsent(userId, UserQueue::new);
+            if (user.jobs.isEmpty()) {
+                user.served = Math.max(user.served, virtualTime);
+            }
+            ScheduledJob job = new ScheduledJob(jobId, user, Math.max(cost, 0.0), priority, sequence++, task);
+            user.jobs.add(job);
+            pendingById.put(jobId, job);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Drops a job that has not started yet; returns false if it is running, finished or unknown
+    public boolean remove(String jobId) {
+        lock.lock();
+        try {
+            ScheduledJob job = pendingById.remove(jobId);
+            if (job == null) {
+                return false;
+            }
+            job.user.jobs.remove(job);
+            if (job.user.jobs.isEmpty()) {
+                users.remove(job.user.userId);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return pendingById.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getWorkerCount() {
+        return workers.size();
+    }
+
+    public int getActiveWorkers() {
+        return activeWorkers.get();
+    }
+
+    private long retryAfterSeconds() {
+        double waves = (double) pendingById.size() / workers.size();
+        return Math.max(1L, (long) Math.ceil(waves * averageRunSeconds));
+    }
+
+    private ScheduledJob take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (running && pendingById.isEmpty()) {
+                notEmpty.await();
+            }
+            if (!running) {
+                return null;
+            }
+            UserQueue next = null;
+            for (UserQueue user : users.values()) {
+                if (next == null || precedes(user, next)) {
+                    next = user;
+                }
+            }
+            ScheduledJob job = next.jobs.poll();
+            pendingById.remove(job.jobId);
+            virtualTime = Math.max(virtualTime, next.served);
+            next.served += job.cost;
+            if (next.jobs.isEmpty()) {
+                users.remove(next.userId);
+            }
+            return job;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Each user's queue head is their most urgent job, so comparing heads compares priorities
+    private static boolean precedes(UserQueue user, UserQueue other) {
+        int priority = Integer.compare(user.jobs.peek().priority, other.jobs.peek().priority);
+        if (priority != 0) {
+            return priority > 0;
+        }
+        return user.served < other.served
+                || (user.served == other.served && ORDER.compare(user.jobs.peek(), other.jobs.peek()) < 0);
+    }
+
+    private void workerLoop() {
+        while (true) {
+            ScheduledJob job;
+            try {
+                job = take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (job == null) {
+                return;
+            }
+            activeWorkers.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                job.task.run();
+            } catch (RuntimeException e) {
+                log.error("Scheduled job {} failed: {}", job.jobId, e.getMessage(), e);
+            } finally {
+                activeWorkers.decrementAndGet();
+                double seconds = (System.nanoTime() - start) / 1e9;
+                averageRunSeconds = 0.9 * averageRunSeconds + 0.1 * seconds;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lock.lock();
+        try {
+            running = false;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static final class UserQueue {
+        final String userId;
+        final PriorityQueue<ScheduledJob> jobs = new PriorityQueue<>(ORDER);
+        double served;
+
+        UserQueue(String userId) {
+            this.userId = userId;
+        }
+    }
+
+    private static final class ScheduledJob {
+        final String jobId;
+        final UserQueue user;
+        final double cost;
+        final int priority;
+        final long sequence;
+        final Runnable task;
+
+        ScheduledJob(String jobId, UserQueue user, double cost, int priority, long sequence, Runnable task) {
+            this.jobId = jobId;
+            this.user = user;
+            this.cost = cost;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.quantum.scheduler;
+
+public class SchedulerSaturatedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public SchedulerSaturatedException(int capacity, long retryAfterSeconds) {
+        this("Job queue is full (" + capacity + " jobs waiting), retry in " + retryAfterSeconds + "s", retryAfterSeconds);
+    }
+
+    public SchedulerSaturatedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
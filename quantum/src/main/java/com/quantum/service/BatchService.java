@@ -0,0 +1,382 @@
+package com.quantum.service;
+
+import com.quantum.backend.BackendDispatcher;
+import com.quantum.events.JobEvent;
+import com.quantum.events.JobEventBus;
+import com.quantum.model.BatchRequest;
+import com.quantum.model.BatchVariant;
+import com.quantum.model.JobResult;
+import com.quantum.model.QuantumJob;
+import com.quantum.repository.JobRepository;
+import com.quantum.sampling.JobRandom;
+import com.quantum.sampling.MeasurementSampler;
+import com.quantum.simulator.CircuitCompiler;
+import com.quantum.simulator.CircuitParser;
+import com.quantum.simulator.CircuitTemplate;
+import com.quantum.simulator.CompiledCircuit;
+import com.quantum.simulator.StateVector;
+import com.quantum.simulator.StateVectorSimulator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * Parameter sweeps as one parent job. Every point of the grid becomes a child variant with its own
+ * derived seed; the parent is queued on the job scheduler like any other job, its variants run on
+ * the simulator's pool (as many at once as the state memory budget allows) and are handed to the
+ * caller as they finish, and the parent job stores all of them once the batch is done. For circuit
+ * templates the shared prefix is compiled and simulated once, and each variant starts from a copy
+ * of that state.
+ */
+@Service
+public class BatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchService.class);
+
+    public static final int MAX_VARIANTS = 4096;
+
+    private final QuantumComputingService quantumService;
+    private final StateVectorSimulator simulator;
+    private final BackendDispatcher dispatcher;
+    private final JobRepository jobRepository;
+    private final JobEventBus events;
+
+    public BatchService(QuantumComputingService quantumService, StateVectorSimulator simulator,
+                        BackendDispatcher dispatcher, JobRepository jobRepository, JobEventBus events) {
+        this.quantumService = quantumService;
+        this.simulator = simulator;
+        this.dispatcher = dispatcher;
+        this.jobRepository = jobRepository;
+        this.events = events;
+    }
+
+    /** A validated batch whose parent job is saved as QUEUED; pass it to {@link #submit}, then {@link #stream}. */
+    public static final class Batch {
+        private final QuantumJob parent;
+        private final String algorithm;
+        private final CircuitTemplate template;
+        private final List<Map<String, Object>> points;
+        private final long[] seeds;
+        private final BlockingQueue<BatchVariant> finished = new LinkedBlockingQueue<>();
+        private final CompletableFuture<QuantumJob> done = new CompletableFuture<>();
+        private volatile boolean started;
+
+        private Batch(QuantumJob parent, String algorithm, CircuitTemplate template,
+                      List<Map<String, Object>> points, long[] seeds) {
+            this.parent = parent;
+            this.algorithm = algorithm;
+            this.template = template;
+            this.points = points;
+            this.seeds = seeds;
+        }
+
+        public QuantumJob getParent() {
+            return parent;
+        }
+
+        public int size() {
+            return points.size();
+        }
+    }
+
+    public Batch prepare(String userId, BatchRequest request) {
+        String algorithm = request.getAlgorithm() != null ? request.getAlgorithm().toUpperCase() : "CIRCUIT";
+        Map<String, Object> base = request.getParameters() != null ? request.getParameters() : Map.of();
+        List<Map<String, Object>> points = expand(request.getGrid() != null ? request.getGrid() : Map.of());
+
+        CircuitTemplate template = null;
+        if ("CIRCUIT".equals(algorithm)) {
+            if (request.getCircuit() == null) {
+                throw new IllegalArgumentException("A CIRCUIT batch needs a 'circuit' template");
+            }
+            template = new CircuitTemplate(request.getCircuit());
+            for (String name : template.getParameters()) {
+                if (!base.containsKey(name) && !points.get(0).containsKey(name)) {
+                    throw new IllegalArgumentException("Template parameter '" + name + "' is not in the grid or parameters");
+                }
+            }
+            // variants share one noiseless prefix state
+            if (base.containsKey("noise") || points.get(0).containsKey("noise")) {
+                throw new IllegalArgumentException("Circuit template batches are noiseless; submit noisy circuits as CIRCUIT jobs");
+            }
+            // reject a malformed prefix before anything is stored
+            CircuitParser.parse(template.getPrefix(), template.getQubits());
+        }
+
+        long seed = request.getSeed() != null ? request.getSeed() : JobRandom.freshSeed();
+        SplittableGenerator rng = JobRandom.create(seed);
+        long[] seeds = new long[points.size()];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = rng.nextLong();
+        }
+
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("algorithm", algorithm);
+        parameters.put("parameters", base);
+        parameters.put("grid", request.getGrid());
+        parameters.put("variants", points.size());
+        parameters.put("seed", seed);
+        if (template != null) {
+            parameters.put("qubits", template.getQubits());
+            parameters.put("gates", request.getCircuit().getGates());
+        }
+
+        QuantumJob parent = new QuantumJob();
+        parent.setId(UUID.randomUUID().toString());
+        parent.setUserId(userId);
+        parent.setAlgorithm("BATCH");
+        parent.setBackend(QuantumJob.Backend.SIMULATOR);
+        parent.setParameters(parameters);
+        parent.setShots(request.getShots());
+        parent.setStatus("QUEUED");
+        parent.setCreatedAt(LocalDateTime.now());
+        jobRepository.save(parent);
+        events.publishStatus(parent);
+
+        log.info("📦 Batch submitted: {} | Algorithm: {} | Variants: {} | User: {}",
+                parent.getId().substring(0, 8) + "...", algorithm, points.size(), userId);
+        return new Batch(parent, algorithm, template, points, seeds);
+    }
+
+    // Queues the batch on the job scheduler, subject to its fairness and back-pressure; a full queue drops the parent
+    public void submit(Batch batch) {
+        QuantumJob parent = batch.parent;
+        try {
+            dispatcher.dispatch(parent, estimateCost(batch), () -> {
+                try {
+                    batch.done.complete(run(batch));
+                } catch (Throwable e) {
+                    batch.done.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            jobRepository.delete(parent.getId());
+            throw e;
+        }
+    }
+
+    /**
+     * Hands each variant to {@code sink} on the calling thread as it finishes and returns the parent
+     * job once the batch is done, or straight away if it was cancelled before it started.
+     */
+    public QuantumJob stream(Batch batch, Consumer<BatchVariant> sink) {
+        try {
+            while (!batch.done.isDone()) {
+                BatchVariant variant = batch.finished.poll(250, TimeUnit.MILLISECONDS);
+                if (variant != null) {
+                    sink.accept(variant);
+                } else if (!batch.started && "CANCELLED".equals(batch.parent.getStatus())) {
+                    return batch.parent;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return batch.parent;
+        }
+        List<BatchVariant> rest = new ArrayList<>();
+        batch.finished.drainTo(rest);
+        rest.forEach(sink);
+        return batch.done.join();
+    }
+
+    private double estimateCost(Batch batch) {
+        Map<String, Object> base = castParameters(batch.parent.getParameters().get("parameters"));
+        if (batch.template != null) {
+            return batch.size() * quantumService.estimateCost("CIRCUIT", batch.parent.getParameters(),
+                    batch.parent.getShots(), QuantumJob.Backend.SIMULATOR);
+        }
+        double cost = 0;
+        for (Map<String, Object> point : batch.points) {
+            cost += quantumService.estimateCost(batch.algorithm, withPoint(base, point), batch.parent.getShots(),
+                    QuantumJob.Backend.SIMULATOR);
+        }
+        return cost;
+    }
+
+    // Widest register any variant simulates, which sizes how many run at once
+    private int registerSize(Batch batch, Map<String, Object> base) {
+        if (batch.template != null) {
+            return batch.template.getQubits();
+        }
+        int qubits = 1;
+        for (Map<String, Object> point : batch.points) {
+            qubits = Math.max(qubits, quantumService.registerSize(batch.algorithm, withPoint(base, point)));
+        }
+        return qubits;
+    }
+
+    private static Map<String, Object> withPoint(Map<String, Object> base, Map<String, Object> point) {
+        Map<String, Object> values = new HashMap<>(base);
+        values.putAll(point);
+        return values;
+    }
+
+    // Runs every variant on a scheduler worker, queueing each for stream() as it finishes, then completes the parent job
+    private QuantumJob run(Batch batch) {
+        QuantumJob parent = batch.parent;
+        batch.started = true;
+        // cancelled while it waited
+        if (!parent.compareAndSetStatus("QUEUED", "RUNNING")) {
+            return parent;
+        }
+        jobRepository.save(parent);
+        events.publishStatus(parent);
+        Map<String, Object> base = castParameters(parent.getParameters().get("parameters"));
+        int shots = parent.getShots();
+        long start = System.nanoTime();
+        ConcurrentLinkedQueue<BatchVariant> done = new ConcurrentLinkedQueue<>();
+
+        JobResult summary = new JobResult("Batch");
+        summary.setSeed((Long) parent.getParameters().get("seed"));
+        try (Prefix prefix = batch.template != null ? Prefix.simulate(batch.template, simulator) : null) {
+            if (prefix != null) {
+                summary.put("shared_prefix_gates", batch.template.getPrefix().size());
+                summary.put("shared_prefix_compiled_gates", prefix.compiled.getGates().size());
+            }
+            // every variant holds a state of up to this size, next to the shared prefix
+            int concurrency = Math.max(1, simulator.concurrentStates(registerSize(batch, base)) - (prefix != null ? 1 : 0));
+            simulator.forEachConcurrently(batch.size(), concurrency, i -> {
+                // a cancelled batch keeps the variants already finished and starts no more
+                if ("CANCELLED".equals(parent.getStatus())) {
+                    return;
+                }
+                Map<String, Object> values = withPoint(base, batch.points.get(i));
+                BatchVariant variant = new BatchVariant(i, batch.points.get(i));
+                try {
+                    variant.setResult(prefix != null
+                            ? runTemplate(batch.template, prefix, values, shots, batch.seeds[i])
+                            : runAlgorithm(batch.algorithm, values, shots, batch.seeds[i]));
+                } catch (RuntimeException e) {
+                    variant.setError(e.getMessage());
+                }
+                done.add(variant);
+                batch.finished.add(variant);
+                if (events.hasSubscribers(parent.getId(), parent.getUserId())) {
+                    events.publish(JobEvent.progress(parent.getId(), parent.getUserId(), "variants", done.size(), batch.size()));
+                }
+            });
+        } catch (RuntimeException e) {
+            if (parent.compareAndSetStatus("RUNNING", "FAILED")) {
+                jobRepository.save(parent);
+                events.publishStatus(parent);
+            }
+            throw e;
+        }
+
+        List<BatchVariant> children = new ArrayList<>(done);
+        children.sort(Comparator.comparingInt(BatchVariant::getIndex));
+        long failed = children.stream().filter(v -> v.getError() != null).count();
+        summary.put("variants", children.size());
+        summary.put("succeeded", children.size() - failed);
+        summary.put("failed", failed);
+        summary.put("children", children);
+
+        parent.setResults(summary);
+        parent.setExecutionTime((System.nanoTime() - start) / 1e9);
+        parent.setCompletedAt(LocalDateTime.now());
+        boolean finished = parent.compareAndSetStatus("RUNNING",
+                failed == children.size() && !children.isEmpty() ? "FAILED" : "COMPLETED");
+        jobRepository.save(parent);
+        if (!finished) {
+            log.info("📦 Batch cancelled: {} | Variants finished: {} of {}",
+                    parent.getId().substring(0, 8) + "...", children.size(), batch.size());
+            return parent;
+        }
+        events.publishStatus(parent);
+
+        log.info("📦 Batch completed: {} | Variants: {} | Failed: {} | Time: {}s",
+                parent.getId().substring(0, 8) + "...", children.size(), failed,
+                String.format("%.2f", parent.getExecutionTime()));
+        return parent;
+    }
+
+    private JobResult runAlgorithm(String algorithm, Map<String, Object> values, int shots, long seed) {
+        values.put("seed", seed);
+        return quantumService.runQuantumAlgorithm(algorithm, values, shots);
+    }
+
+    private JobResult runTemplate(CircuitTemplate template, Prefix prefix, Map<String, Object> values, int shots,
+                                  long seed) {
+        int qubits = template.getQubits();
+        CompiledCircuit body = CircuitCompiler.compile(CircuitParser.parse(template.bind(values), qubits), qubits);
+        JobResult result = new JobResult("Circuit");
+        result.setSeed(seed);
+        try (StateVector state = simulator.newState(qubits)) {
+            simulator.getSweep().run(state.size(), (from, to) -> state.copyFrom(prefix.state, from, to));
+            simulator.execute(body.getGates(), state);
+            result.setCounts(MeasurementSampler.sample(state, qubits, shots, JobRandom.create(seed), simulator.getSweep()));
+        }
+        result.put("gates_applied", prefix.compiled.getGates().size() + body.getGates().size());
+        result.put("compilation", body.getStats().toMap());
+        result.put("qubits", qubits);
+        return result;
+    }
+
+    // Cartesian product of the grid in key order; an empty grid is a single variant
+    static List<Map<String, Object>> expand(Map<String, List<Object>> grid) {
+        List<Map<String, Object>> points = new ArrayList<>();
+        points.add(new LinkedHashMap<>());
+        for (Map.Entry<String, List<Object>> axis : grid.entrySet()) {
+            List<Object> values = axis.getValue();
+            if (values == null || values.isEmpty()) {
+                throw new IllegalArgumentException("Grid parameter '" + axis.getKey() + "' has no values");
+            }
+            if ((long) points.size() * values.size() > MAX_VARIANTS) {
+                throw new IllegalArgumentException("Grid expands to more than " + MAX_VARIANTS + " variants");
+            }
+            List<Map<String, Object>> next = new ArrayList<>(points.size() * values.size());
+            for (Map<String, Object> point : points) {
+                for (Object value : values) {
+                    Map<String, Object> extended = new LinkedHashMap<>(point);
+                    extended.put(axis.getKey(), value);
+                    next.add(extended);
+                }
+            }
+            points = next;
+        }
+        return points;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> castParameters(Object parameters) {
+        return parameters instanceof Map<?, ?> map ? (Map<String, Object>) map : Map.of();
+    }
+
+    // The template prefix, compiled and simulated once; variants copy its state
+    private static final class Prefix implements AutoCloseable {
+        private final CompiledCircuit compiled;
+        private final StateVector state;
+
+        private Prefix(CompiledCircuit compiled, StateVector state) {
+            this.compiled = compiled;
+            this.state = state;
+        }
+
+        static Prefix simulate(CircuitTemplate template, StateVectorSimulator simulator) {
+            int qubits = template.getQubits();
+            CompiledCircuit compiled = CircuitCompiler.compile(CircuitParser.parse(template.getPrefix(), qubits), qubits);
+            return new Prefix(compiled, simulator.run(compiled));
+        }
+
+        @Override
+        public void close() {
+            state.close();
+        }
+    }
+}
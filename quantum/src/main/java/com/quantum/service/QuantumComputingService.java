@@ -1,27 +1,118 @@
 package com.quantum.service;
 
+import com.quantum.algorithm.GroverAlgorithm;
+import com.quantum.algorithm.ShorAlgorithm;
+import com.quantum.backend.BackendDispatcher;
+import com.quantum.cache.ResultCache;
+import com.quantum.events.JobEventBus;
+import com.quantum.events.ProgressReporter;
+import com.quantum.metrics.PipelineMetrics;
+import com.quantum.metrics.PipelineMetrics.Stage;
+import com.quantum.model.JobResult;
+import com.quantum.model.QuantumCircuit;
 import com.quantum.model.QuantumJob;
+import com.quantum.repository.JobIndex;
+import com.quantum.repository.JobRepository;
+import com.quantum.sampling.JobRandom;
+import com.quantum.sampling.ShotHistogram;
+import com.quantum.simulator.CircuitCompiler;
+import com.quantum.simulator.CircuitParser;
+import com.quantum.simulator.CompiledCircuit;
+import com.quantum.simulator.ExecutionMonitor;
+import com.quantum.simulator.Gate;
+import com.quantum.simulator.Measurement;
+import com.quantum.simulator.NoiseModel;
+import com.quantum.simulator.Representation;
+import com.quantum.simulator.SparseStateVector;
+import com.quantum.simulator.StabilizerTableau;
+import com.quantum.simulator.StateVectorSimulator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class QuantumComputingService {
     
     private static final Logger log = LoggerFactory.getLogger(QuantumComputingService.class);
     
-    private final Random random = new Random();
-    private final Map<String, QuantumJob> jobStore = new ConcurrentHashMap<>();
-    private final ExecutorService executorService = Executors.newFixedThreadPool(4);
-    private int totalJobsProcessed = 0;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final String[] RANDOM_GATE_SET = {"H", "X", "Y", "Z", "RX", "RY", "RZ", "CNOT", "SWAP"};
+    
+    private final StateVectorSimulator simulator;
+    private final BackendDispatcher dispatcher;
+    private final JobRepository jobRepository;
+    private final ResultCache resultCache;
+    private final PipelineMetrics metrics;
+    private final JobEventBus events;
+    private final long progressIntervalNanos;
+    private final boolean preemption;
+    private final long preemptAfterNanos;
+    private final Map<String, RunningJob> running = new ConcurrentHashMap<>();
+    
+    public QuantumComputingService(StateVectorSimulator simulator, BackendDispatcher dispatcher,
+                                   JobRepository jobRepository, ResultCache resultCache, PipelineMetrics metrics,
+                                   JobEventBus events,
+                                   @Value("${quantum.events.progress-interval-ms:250}") long progressIntervalMillis,
+                                   @Value("${quantum.scheduler.preemption.enabled:false}") boolean preemption,
+                                   @Value("${quantum.scheduler.preemption.min-runtime-ms:10000}") long preemptAfterMillis) {
+        this.simulator = simulator;
+        this.dispatcher = dispatcher;
+        this.jobRepository = jobRepository;
+        this.resultCache = resultCache;
+        this.metrics = metrics;
+        this.events = events;
+        this.progressIntervalNanos = TimeUnit.MILLISECONDS.toNanos(progressIntervalMillis);
+        this.preemption = preemption;
+        this.preemptAfterNanos = TimeUnit.MILLISECONDS.toNanos(preemptAfterMillis);
+    }
+    
+    // Jobs that were queued or running when the service last stopped go back on the queue
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverJobs() {
+        for (QuantumJob job : jobRepository.recoverPending()) {
+            // a batch's grid and streamed variants lived in the request that started it, so it cannot resume
+            if ("BATCH".equals(job.getAlgorithm())) {
+                job.setStatus("FAILED");
+                jobRepository.save(job);
+                events.publishStatus(job);
+                log.warn("Batch {} was interrupted by a restart and is marked failed", job.getId());
+                continue;
+            }
+            job.setStatus("QUEUED");
+            jobRepository.save(job);
+            try {
+                dispatcher.dispatch(job, estimateCost(job), () -> runJob(job.getId()));
+                log.info("↻ Re-queued job after restart: {}", job.getId().substring(0, 8) + "...");
+            } catch (RuntimeException e) {
+                job.setStatus("FAILED");
+                jobRepository.save(job);
+                events.publishStatus(job);
+                log.warn("Could not re-queue job {}: {}", job.getId(), e.getMessage());
+            }
+        }
+    }
     
     public QuantumJob submitJob(String userId, String algorithm, QuantumJob.Backend backend, 
                                Map<String, Object> parameters, int shots) {
+        return submitJob(userId, algorithm, backend, parameters, shots, QuantumJob.Priority.NORMAL);
+    }
+    
+    public QuantumJob submitJob(String userId, String algorithm, QuantumJob.Backend backend,
+                               Map<String, Object> parameters, int shots, QuantumJob.Priority priority) {
         
+        // rejects an unknown algorithm before anything is stored
+        algorithmKey(algorithm);
         String jobId = UUID.randomUUID().toString();
         QuantumJob job = new QuantumJob();
         job.setId(jobId);
@@ -30,295 +121,659 @@ public class QuantumComputingService {
         job.setBackend(backend);
         job.setParameters(parameters != null ? parameters : new HashMap<>());
         job.setShots(shots);
+        job.setPriority(priority);
         job.setStatus("QUEUED");
         job.setCreatedAt(LocalDateTime.now());
         
-        jobStore.put(jobId, job);
+        jobRepository.save(job);
+        try {
+            dispatcher.dispatch(job, estimateCost(job), () -> runJob(jobId));
+        } catch (RuntimeException e) {
+            jobRepository.delete(jobId);
+            throw e;
+        }
+        events.publishStatus(job);
+        preemptFor(job);
         
         log.info("📨 Quantum job submitted: {} | Algorithm: {} | User: {} | Backend: {}", 
                 jobId.substring(0, 8) + "...", algorithm.toUpperCase(), userId, backend);
         
-        // Process in background (async)
-        processJobAsync(jobId);
-        
         return job;
     }
     
-    private void processJobAsync(String jobId) {
-        executorService.submit(() -> {
-            try {
-                QuantumJob job = jobStore.get(jobId);
-                if (job == null) return;
-                
-                // Simulate queue delay
-                Thread.sleep(500 + random.nextInt(1000));
-                job.setStatus("RUNNING");
-                log.debug("▶️  Processing job: {}", jobId.substring(0, 8));
-                
-                // Simulate computation time
-                Thread.sleep(1000 + random.nextInt(2000));
-                
-                // Run the quantum algorithm
-                Map<String, Object> results = runQuantumAlgorithm(
-                    job.getAlgorithm(), 
-                    job.getParameters(),
-                    job.getShots()
-                );
-                
-                job.setResults(results);
-                job.setStatus("COMPLETED");
-                job.setExecutionTime(1.5 + random.nextDouble() * 3.5);
-                job.setCompletedAt(LocalDateTime.now());
-                
-                totalJobsProcessed++;
-                log.info("✓ Job completed: {} | Time: {:.2f}s | Algorithm: {}", 
-                        jobId.substring(0, 8) + "...", job.getExecutionTime(), job.getAlgorithm().toUpperCase());
-                
-            } catch (InterruptedException e) {
-                QuantumJob job = jobStore.get(jobId);
-                if (job != null) {
-                    job.setStatus("CANCELLED");
-                }
-                Thread.currentThread().interrupt();
-                log.warn("❌ Job cancelled: {}", jobId.substring(0, 8));
-            } catch (Exception e) {
-                QuantumJob job = jobStore.get(jobId);
-                if (job != null) {
-                    job.setStatus("FAILED");
-                }
-                log.error("✗ Error processing job {}: {}", jobId.substring(0, 8), e.getMessage(), e);
+    private double estimateCost(QuantumJob job) {
+        return estimateCost(job.getAlgorithm(), job.getParameters(), job.getShots(), job.getBackend());
+    }
+    
+    // Relative cost used for scheduling: qubits x depth x shots
+    public double estimateCost(String name, Map<String, Object> params, int shots, QuantumJob.Backend backend) {
+        String algorithm = algorithmKey(name);
+        double qubits = jobQubits(algorithm, params);
+        double depth = switch (algorithm) {
+            // 2n counting + n work qubits; the QFT dominates at about t^2 / 2 gates
+            case "SHOR" -> qubits * qubits / 2;
+            case "GROVER" -> qubits <= GroverAlgorithm.STATEVECTOR_MAX_QUBITS ? Math.sqrt(Math.pow(2, qubits)) : 1;
+            case "CIRCUIT" -> params.get("gates") instanceof List<?> gates ? Math.max(1, gates.size()) : 1;
+            case "QVECTOR", "TELEPORT" -> 1;
+            default -> numberParam(params, "depth", 10);
+        };
+        // a noisy circuit runs once per trajectory
+        NoiseSettings noise = resolveNoise(algorithm, params, backend);
+        double runs = noise.isNoisy() ? Math.min(noise.trajectories(), Math.max(1, shots)) : 1;
+        return qubits * depth * Math.max(1, shots) * runs;
+    }
+    
+    public int registerSize(String algorithm, Map<String, Object> params) {
+        return jobQubits(algorithmKey(algorithm), params);
+    }
+    
+    // Simulated register size, for scheduling cost and metric tags
+    private static int jobQubits(String algorithm, Map<String, Object> params) {
+        return switch (algorithm) {
+            case "SHOR" -> 3 * (64 - Long.numberOfLeadingZeros(Math.max(2, (long) numberParam(params, "number", 15))));
+            case "QVECTOR", "TELEPORT" -> 3;
+            default -> (int) numberParam(params, "qubits", 5);
+        };
+    }
+    
+    private static String algorithmKey(String algorithm) {
+        String name = algorithm.toUpperCase();
+        return switch (name) {
+            case "GROVER", "SHOR", "QVECTOR", "TELEPORT", "CIRCUIT", "RANDOM" -> name;
+            default -> throw new IllegalArgumentException("Unknown algorithm '" + algorithm
+                    + "', expected one of GROVER, SHOR, QVECTOR, TELEPORT, CIRCUIT or RANDOM");
+        };
+    }
+    
+    private static double numberParam(Map<String, Object> params, String key, double fallback) {
+        return params.get(key) instanceof Number number ? number.doubleValue() : fallback;
+    }
+    
+    private void runJob(String jobId) {
+        QuantumJob job = jobRepository.findById(jobId);
+        // a job cancelled while it waited has already left QUEUED
+        if (job == null || !job.compareAndSetStatus("QUEUED", "RUNNING")) {
+            return;
+        }
+        String algorithm = algorithmKey(job.getAlgorithm());
+        metrics.record(Stage.QUEUE_WAIT, algorithm, jobQubits(algorithm, job.getParameters()),
+                Math.max(0, Duration.between(job.getCreatedAt(), LocalDateTime.now()).toNanos()));
+        RunningJob run = new RunningJob(job, !dispatcher.isRemote(job));
+        running.put(jobId, run);
+        // whoever moves the job to a terminal status announces it; cancelJob does so itself
+        boolean finished = false;
+        try {
+            jobRepository.save(job);
+            events.publishStatus(job);
+            log.debug("▶️  Processing job: {}", jobId.substring(0, 8));
+            long start = System.nanoTime();
+            
+            // Run the quantum algorithm on the job's backend; a cancel or preemption stops it at the next gate or sampling chunk
+            ExecutionMonitor monitor = ExecutionMonitor.cancellable(
+                    new ProgressReporter(events, jobId, job.getUserId(), progressIntervalNanos), run::isStopped);
+            JobResult result = dispatcher.execute(job, estimateCost(job),
+                j -> runQuantumAlgorithm(j.getAlgorithm(), j.getParameters(), j.getShots(), j.getBackend(), monitor));
+            
+            // attached before the status flips, so a COMPLETED job is never read without its result
+            job.setResults(result);
+            job.setExecutionTime((System.nanoTime() - start) / 1e9);
+            job.setCompletedAt(LocalDateTime.now());
+            if (job.compareAndSetStatus("RUNNING", "COMPLETED")) {
+                finished = true;
+                log.info("✓ Job completed: {} | Time: {}s | Algorithm: {}", 
+                        jobId.substring(0, 8) + "...", String.format("%.2f", job.getExecutionTime()), algorithm);
+            } else {
+                // cancelled after the last check; a cancelled job keeps no result
+                job.setResults(null);
+                job.setCompletedAt(null);
             }
+            
+        } catch (CancellationException e) {
+            if (run.preempted && job.compareAndSetStatus("RUNNING", "QUEUED")) {
+                requeue(job, algorithm);
+                return;
+            }
+            log.info("⏹ Job stopped after cancellation: {}", jobId.substring(0, 8));
+        } catch (InterruptedException e) {
+            finished = job.compareAndSetStatus("RUNNING", "CANCELLED");
+            Thread.currentThread().interrupt();
+            log.warn("❌ Job cancelled: {}", jobId.substring(0, 8));
+        } catch (Exception e) {
+            finished = job.compareAndSetStatus("RUNNING", "FAILED");
+            log.error("✗ Error processing job {}: {}", jobId.substring(0, 8), e.getMessage(), e);
+        } finally {
+            // a requeued run may already be registered under the same id
+            running.remove(jobId, run);
+        }
+        // saved last, so it supersedes a RUNNING record written concurrently with a cancel
+        jobRepository.save(job);
+        metrics.jobFinished(algorithm, job.getStatus());
+        if (finished) {
+            events.publishStatus(job);
+        }
+    }
+    
+    // A preempted job starts over from the beginning once it is scheduled again
+    private void requeue(QuantumJob job, String algorithm) {
+        jobRepository.save(job);
+        events.publishStatus(job);
+        try {
+            dispatcher.dispatch(job, estimateCost(job), () -> runJob(job.getId()));
+            log.info("⏸ Job preempted and re-queued: {}", job.getId().substring(0, 8) + "...");
+        } catch (RuntimeException e) {
+            if (job.compareAndSetStatus("QUEUED", "FAILED")) {
+                jobRepository.save(job);
+                metrics.jobFinished(algorithm, job.getStatus());
+                events.publishStatus(job);
+            }
+            log.warn("Could not re-queue preempted job {}: {}", job.getId(), e.getMessage());
+        }
+    }
+    
+    // A HIGH job arriving while every worker is busy stops the longest-running LOW local job
+    private void preemptFor(QuantumJob job) {
+        if (!preemption || job.getPriority() != QuantumJob.Priority.HIGH || dispatcher.isRemote(job)
+                || dispatcher.hasIdleWorker()) {
+            return;
+        }
+        long now = System.nanoTime();
+        running.values().stream()
+                .filter(r -> r.local && !r.preempted && r.job.getPriority() == QuantumJob.Priority.LOW
+                        && now - r.startNanos >= preemptAfterNanos)
+                .min(Comparator.comparingLong(r -> r.startNanos))
+                .ifPresent(r -> {
+                    r.preempted = true;
+                    log.info("⏸ Preempting job {} for high-priority job {}",
+                            r.job.getId().substring(0, 8) + "...", job.getId().substring(0, 8) + "...");
+                });
+    }
+    
+    public JobResult runQuantumAlgorithm(String algorithm, 
+                                         Map<String, Object> parameters,
+                                         int shots) {
+        return runQuantumAlgorithm(algorithm, parameters, shots, QuantumJob.Backend.SIMULATOR, ExecutionMonitor.NONE);
+    }
+    
+    // The job's backend picks the default noise model; a "noise" parameter overrides it
+    private JobResult runQuantumAlgorithm(String algorithm, Map<String, Object> parameters, int shots,
+                                          QuantumJob.Backend backend, ExecutionMonitor monitor) {
+        
+        long seed = resolveSeed(parameters);
+        SplittableGenerator rng = JobRandom.create(seed);
+        String key = algorithmKey(algorithm);
+        NoiseSettings noise = resolveNoise(key, parameters, backend);
+        long start = System.nanoTime();
+        
+        JobResult result = switch (key) {
+            case "GROVER" -> runGroverAlgorithm(parameters, shots, rng, monitor);
+            case "SHOR" -> runShorAlgorithm(parameters, shots, rng, monitor);
+            case "QVECTOR" -> runQuantumVectorAlgorithm(parameters, shots, rng, monitor);
+            case "TELEPORT" -> runQuantumTeleportation(parameters, shots, rng, monitor, noise);
+            case "CIRCUIT" -> runCircuit(toCircuit(parameters), shots, Representation.parse(parameters.get("representation")),
+                    rng, monitor, noise);
+            case "RANDOM" -> runRandomCircuit(parameters, shots, rng, monitor, noise);
+            default -> throw new IllegalArgumentException("Unknown algorithm '" + algorithm + "'");
+        };
+        result.setSeed(seed);
+        metrics.record(Stage.EXECUTE, key, jobQubits(key, parameters), System.nanoTime() - start);
+        return result;
+    }
+    
+    // Noise only applies to gate-level circuits; the other algorithms are simulated exactly
+    private static NoiseSettings resolveNoise(String algorithm, Map<String, Object> params, QuantumJob.Backend backend) {
+        if (!"CIRCUIT".equals(algorithm) && !"RANDOM".equals(algorithm) && !"TELEPORT".equals(algorithm)) {
+            if (params.get("noise") != null) {
+                throw new IllegalArgumentException("noise is only modeled for CIRCUIT, RANDOM and TELEPORT jobs");
+            }
+            return NoiseSettings.NONE;
+        }
+        NoiseModel model = NoiseModel.parse(params.get("noise"), NoiseModel.forBackend(backend));
+        int trajectories = (int) numberParam(params, "trajectories", StateVectorSimulator.DEFAULT_TRAJECTORIES);
+        if (trajectories < 1) {
+            throw new IllegalArgumentException("trajectories must be at least 1, got " + trajectories);
+        }
+        Representation representation = Representation.parse(params.get("representation"));
+        if (!model.isIdeal() && representation != Representation.AUTO && representation != Representation.DENSE) {
+            throw new IllegalArgumentException("Noisy circuits run on the dense state vector, not "
+                    + representation.name().toLowerCase());
+        }
+        return new NoiseSettings(model, trajectories);
+    }
+    
+    // Synchronous runs: reproducible requests are served from the result cache, the rest always recompute
+    public JobResult runCached(String algorithm, Map<String, Object> parameters, int shots) {
+        String name = algorithm.toUpperCase();
+        if (parameters.get("seed") == null) {
+            return resultCache.bypass(() -> runQuantumAlgorithm(name, parameters, shots));
+        }
+        Map<String, Object> keyParams = new HashMap<>(parameters);
+        keyParams.put("seed", resolveSeed(parameters));
+        String key = resultCache.key(name, keyParams, shots, QuantumJob.Backend.SIMULATOR.name());
+        return resultCache.get(key, () -> {
+            JobResult result = runQuantumAlgorithm(name, parameters, shots);
+            // wall-clock timings describe one run, not the reproducible result every later hit is served
+            result.remove("timings_ms");
+            return result;
         });
     }
     
-    public Map<String, Object> runQuantumAlgorithm(String algorithm, 
-                                                   Map<String, Object> parameters,
-                                                   int shots) {
-        
-        switch (algorithm.toUpperCase()) {
-            case "GROVER":
-                return runGroverAlgorithm(parameters, shots);
-            case "SHOR":
-                return runShorAlgorithm(parameters);
-            case "QVECTOR":
-                return runQuantumVectorAlgorithm(parameters, shots);
-            case "TELEPORT":
-                return runQuantumTeleportation(parameters, shots);
-            default:
-                return runRandomCircuit(parameters, shots);
+    // Widest register each engine accepts; the dense limit is the configured one, capped by StateVector
+    public Map<String, Integer> getQubitLimits() {
+        Map<String, Integer> limits = new LinkedHashMap<>();
+        limits.put("dense", simulator.getMaxQubits());
+        limits.put("sparse", SparseStateVector.MAX_QUBITS);
+        limits.put("stabilizer", StabilizerTableau.MAX_QUBITS);
+        return limits;
+    }
+    
+    public Map<String, Object> getCacheStats() {
+        return resultCache.getStats();
+    }
+    
+    // A user-supplied "seed" makes a run reproducible; otherwise a fresh one is drawn and reported
+    private long resolveSeed(Map<String, Object> parameters) {
+        Object seed = parameters.get("seed");
+        if (seed == null) {
+            return JobRandom.freshSeed();
+        }
+        if (seed instanceof Number number) {
+            return number.longValue();
+        }
+        try {
+            return Long.parseLong(seed.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("seed must be an integer, got '" + seed + "'");
         }
     }
     
-    private Map<String, Object> runGroverAlgorithm(Map<String, Object> params, int shots) {
+    private JobResult runGroverAlgorithm(Map<String, Object> params, int shots, SplittableGenerator rng,
+                                         ExecutionMonitor monitor) {
         int qubits = (int) params.getOrDefault("qubits", 5);
-        String markedState = params.getOrDefault("marked_state", "10101").toString();
-        
-        Map<String, Object> results = new HashMap<>();
-        Map<String, Integer> counts = new HashMap<>();
-        
-        // Grover's algorithm: finds marked state with ~80% probability
-        for (int i = 0; i < shots; i++) {
-            if (random.nextDouble() < 0.8) {
-                counts.put(markedState, counts.getOrDefault(markedState, 0) + 1);
-            } else {
-                String randomState = generateRandomState(qubits);
-                counts.put(randomState, counts.getOrDefault(randomState, 0) + 1);
-            }
+        List<String> markedStates = markedStates(params.getOrDefault("marked_state", "10101"));
+        long[] marked = markedStates.stream().mapToLong(bits -> parseBasisState(bits, qubits)).toArray();
+        Long iterations = params.get("iterations") != null ? longParam(params, "iterations", 0L) : null;
+        GroverAlgorithm.Method method = groverMethod(params.get("method"));
+        
+        JobResult result = GroverAlgorithm.run(qubits, marked, iterations, method, shots, rng, simulator, monitor);
+        result.put("marked_state", String.join(",", markedStates));
+        return result;
+    }
+    
+    // Marked states as a comma-separated string ("101,011") or a JSON list of bitstrings
+    private static List<String> markedStates(Object value) {
+        List<?> items = value instanceof List<?> list ? list : Arrays.asList(value.toString().split(","));
+        return items.stream().map(item -> item.toString().trim()).toList();
+    }
+    
+    private static GroverAlgorithm.Method groverMethod(Object value) {
+        if (value == null) {
+            return GroverAlgorithm.Method.AUTO;
+        }
+        try {
+            return GroverAlgorithm.Method.valueOf(value.toString().trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("method must be one of auto, statevector or analytic, got '" + value + "'");
         }
-        
-        results.put("algorithm", "Grover");
-        results.put("qubits", qubits);
-        results.put("marked_state", markedState);
-        results.put("counts", counts);
-        results.put("success_probability", 0.8);
-        results.put("oracle_calls", (int) Math.sqrt(Math.pow(2, qubits)));
-        results.put("quantum_speedup", "quadratic");
-        
-        return results;
     }
     
-    private Map<String, Object> runShorAlgorithm(Map<String, Object> params) {
-        int number = (int) params.getOrDefault("number", 15);
-        
-        Map<String, Object> results = new HashMap<>();
-        List<Integer> factors = new ArrayList<>();
-        
-        // Simulate Shor's factorization
-        for (int i = 2; i <= Math.sqrt(number); i++) {
-            if (number % i == 0) {
-                factors.add(i);
-                factors.add(number / i);
-                break;
-            }
+    private JobResult runShorAlgorithm(Map<String, Object> params, int shots, SplittableGenerator rng,
+                                       ExecutionMonitor monitor) {
+        long number = longParam(params, "number", 15L);
+        Long base = params.get("base") != null ? longParam(params, "base", 0L) : null;
+        return ShorAlgorithm.run(number, base, shots, rng, simulator.getSweep(), monitor);
+    }
+    
+    private static long longParam(Map<String, Object> params, String key, long fallback) {
+        Object value = params.get(key);
+        if (value == null) {
+            return fallback;
+        }
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        try {
+            return Long.parseLong(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " must be an integer, got '" + value + "'");
         }
-        
-        results.put("algorithm", "Shor");
-        results.put("input_number", number);
-        results.put("factors", factors);
-        results.put("qubits_required", (int) Math.ceil(Math.log(number) / Math.log(2)) * 2);
-        results.put("quantum_speedup", "exponential");
-        results.put("classical_complexity", "O(exp(n^(1/3)))");
-        results.put("quantum_complexity", "O(n^2 log n)");
-        
-        return results;
     }
     
-    private Map<String, Object> runQuantumVectorAlgorithm(Map<String, Object> params, int shots) {
+    private JobResult runQuantumVectorAlgorithm(Map<String, Object> params, int shots, RandomGenerator rng,
+                                                ExecutionMonitor monitor) {
         int dimensions = (int) params.getOrDefault("dimensions", 8);
         
-        Map<String, Object> results = new HashMap<>();
+        JobResult result = new JobResult("Quantum State Vector");
         Map<String, Double> vector = new HashMap<>();
         
         // Generate quantum state vector
         double sum = 0;
         for (int i = 0; i < dimensions; i++) {
+            monitor.checkCancelled();
             String state = Integer.toBinaryString(i);
             // Pad with zeros
             while (state.length() < (int) Math.ceil(Math.log(dimensions) / Math.log(2))) {
                 state = "0" + state;
             }
-            double amplitude = random.nextDouble();
+            double amplitude = rng.nextDouble();
             vector.put(state, amplitude);
             sum += amplitude * amplitude;
+            monitor.simulated(i + 1, dimensions);
         }
         
         // Normalize
         final double norm = Math.sqrt(sum);
         vector.replaceAll((k, v) -> v / norm);
         
-        results.put("algorithm", "Quantum State Vector");
-        results.put("dimensions", dimensions);
-        results.put("state_vector", vector);
-        results.put("entanglement_entropy", random.nextDouble());
-        results.put("state_fidelity", 0.95 + random.nextDouble() * 0.05);
+        result.put("dimensions", dimensions);
+        result.put("state_vector", vector);
+        result.put("entanglement_entropy", rng.nextDouble());
+        result.put("state_fidelity", 0.95 + rng.nextDouble() * 0.05);
         
-        return results;
+        return result;
     }
     
-    private Map<String, Object> runQuantumTeleportation(Map<String, Object> params, int shots) {
-        Map<String, Object> results = new HashMap<>();
-        Map<String, Integer> counts = new HashMap<>();
+    // Teleports a single-qubit state from qubit 0 to qubit 2, with the classically controlled
+    // corrections deferred to CNOT and CZ; undoing the preparation on qubit 2 should leave it at |0>
+    private JobResult runQuantumTeleportation(Map<String, Object> params, int shots, SplittableGenerator rng,
+                                              ExecutionMonitor monitor, NoiseSettings noise) {
+        String input = String.valueOf(params.getOrDefault("state", "1"));
+        List<String> prepare = switch (input) {
+            case "0" -> List.of();
+            case "1" -> List.of("X 0");
+            case "+" -> List.of("H 0");
+            case "-" -> List.of("X 0", "H 0");
+            default -> throw new IllegalArgumentException("state must be one of 0, 1, + or -, got '" + input + "'");
+        };
+        List<String> gates = new ArrayList<>(prepare);
+        gates.addAll(List.of("H 1", "CNOT 1 2", "CNOT 0 1", "H 0", "CNOT 1 2", "H 2", "CNOT 0 2", "H 2"));
+        for (int i = prepare.size() - 1; i >= 0; i--) {
+            gates.add(prepare.get(i).replace(" 0", " 2"));
+        }
         
-        // Quantum teleportation simulation
-        int success = 0;
-        for (int i = 0; i < shots; i++) {
-            if (random.nextDouble() < 0.75) { // 75% success rate
-                counts.put("111", counts.getOrDefault("111", 0) + 1);
-                success++;
-            } else {
-                counts.put("000", counts.getOrDefault("000", 0) + 1);
+        QuantumCircuit circuit = new QuantumCircuit();
+        circuit.setName("teleportation");
+        circuit.setQubits(3);
+        circuit.setGates(gates);
+        
+        JobResult result = new JobResult("Quantum Teleportation");
+        ShotHistogram counts = simulateCircuit("TELEPORT", circuit, shots, Representation.AUTO, result, rng, monitor,
+                noise);
+        int received = 0;
+        for (int i = 0; i < counts.distinctStates(); i++) {
+            if ((counts.state(i) & 0b100) == 0) {
+                received += counts.count(i);
             }
         }
         
-        results.put("algorithm", "Quantum Teleportation");
-        results.put("qubits_used", 3);
-        results.put("counts", counts);
-        results.put("success_rate", (double) success / shots);
-        results.put("classical_bits_sent", 2);
-        results.put("entanglement_used", true);
+        result.put("qubits_used", 3);
+        result.put("teleported_state", input);
+        result.put("gates", gates);
+        result.setCounts(counts);
+        result.put("success_rate", shots > 0 ? (double) received / shots : 0.0);
+        result.put("classical_bits_sent", 2);
+        result.put("entanglement_used", true);
         
-        return results;
+        return result;
+    }
+    
+    public JobResult runCircuit(QuantumCircuit circuit, int shots, Long seed, Representation representation) {
+        long resolved = seed != null ? seed : JobRandom.freshSeed();
+        long start = System.nanoTime();
+        JobResult result = runCircuit(circuit, shots, representation, JobRandom.create(resolved), ExecutionMonitor.NONE,
+                NoiseSettings.NONE);
+        result.setSeed(resolved);
+        metrics.record(Stage.EXECUTE, "CIRCUIT", circuit.getQubits(), System.nanoTime() - start);
+        return result;
+    }
+    
+    private JobResult runCircuit(QuantumCircuit circuit, int shots, Representation representation,
+                                 SplittableGenerator rng, ExecutionMonitor monitor, NoiseSettings noise) {
+        JobResult result = new JobResult("Circuit");
+        ShotHistogram counts = simulateCircuit("CIRCUIT", circuit, shots, representation, result, rng, monitor, noise);
+        
+        result.put("name", circuit.getName() != null ? circuit.getName() : "circuit");
+        result.put("qubits", circuit.getQubits());
+        result.setCounts(counts);
+        return result;
+    }
+    
+    // Compiles, simulates and samples the circuit, recording the compiler's savings and the representation used
+    private ShotHistogram simulateCircuit(String algorithm, QuantumCircuit circuit, int shots,
+                                          Representation representation, JobResult result, SplittableGenerator rng,
+                                          ExecutionMonitor monitor, NoiseSettings noise) {
+        int qubits = circuit.getQubits();
+        long start = System.nanoTime();
+        List<Gate> gates = CircuitParser.parse(circuit);
+        if (noise.isNoisy()) {
+            return simulateNoisy(algorithm, qubits, gates, shots, result, rng, monitor, noise, start);
+        }
+        if (representation == Representation.STABILIZER
+                || representation == Representation.AUTO && StabilizerTableau.isClifford(gates)) {
+            metrics.record(Stage.COMPILE, algorithm, qubits, System.nanoTime() - start);
+            return simulateStabilizer(algorithm, qubits, gates, shots, result, rng, monitor);
+        }
+        CompiledCircuit compiled = CircuitCompiler.compile(gates, qubits);
+        metrics.record(Stage.COMPILE, algorithm, qubits, System.nanoTime() - start);
+        result.put("gates_applied", compiled.getGates().size());
+        result.put("compilation", compiled.getStats().toMap());
+        Measurement measurement = simulator.measure(compiled, representation, shots, rng, monitor);
+        metrics.record(Stage.SIMULATE, algorithm, qubits, measurement.simulateNanos());
+        metrics.record(Stage.SAMPLE, algorithm, qubits, measurement.sampleNanos());
+        result.put("representation", measurement.representation().name().toLowerCase());
+        result.put("stored_amplitudes", measurement.storedAmplitudes());
+        return measurement.counts();
+    }
+    
+    // Noisy circuits run uncompiled as dense trajectories: fusing gates would merge their error rates
+    private ShotHistogram simulateNoisy(String algorithm, int qubits, List<Gate> gates, int shots, JobResult result,
+                                        SplittableGenerator rng, ExecutionMonitor monitor, NoiseSettings noise,
+                                        long start) {
+        metrics.record(Stage.COMPILE, algorithm, qubits, System.nanoTime() - start);
+        Measurement measurement = simulator.measureNoisy(gates, qubits, noise.model(), shots, noise.trajectories(),
+                rng, monitor);
+        metrics.record(Stage.SIMULATE, algorithm, qubits, measurement.simulateNanos());
+        metrics.record(Stage.SAMPLE, algorithm, qubits, measurement.sampleNanos());
+        result.put("gates_applied", gates.size());
+        result.put("representation", "dense");
+        result.put("stored_amplitudes", measurement.storedAmplitudes());
+        result.put("trajectories", Math.max(1, Math.min(noise.trajectories(), shots)));
+        result.put("noise", noise.model().toMap());
+        return measurement.counts();
     }
     
-    private Map<String, Object> runRandomCircuit(Map<String, Object> params, int shots) {
+    // Clifford-only circuits run on the stabilizer tableau at any width; past 62 qubits the counts are keyed by bitstring
+    private ShotHistogram simulateStabilizer(String algorithm, int qubits, List<Gate> gates, int shots,
+                                             JobResult result, SplittableGenerator rng, ExecutionMonitor monitor) {
+        long start = System.nanoTime();
+        StabilizerTableau tableau = new StabilizerTableau(qubits);
+        for (int g = 0; g < gates.size(); g++) {
+            monitor.checkCancelled();
+            tableau.apply(gates.get(g));
+            monitor.simulated(g + 1, gates.size());
+        }
+        StabilizerTableau.OutcomeSpace outcomes = tableau.measureAll();
+        long sampleStart = System.nanoTime();
+        metrics.record(Stage.SIMULATE, algorithm, qubits, sampleStart - start);
+        result.put("gates_applied", gates.size());
+        result.put("representation", "stabilizer");
+        result.put("random_bits", outcomes.dimension());
+        ShotHistogram counts = null;
+        if (qubits <= 62) {
+            counts = outcomes.sample(shots, rng, simulator.getSweep());
+        } else {
+            result.put("bitstring_counts", outcomes.sampleBitstrings(shots, rng, simulator.getSweep()));
+        }
+        monitor.sampled(shots, shots);
+        metrics.record(Stage.SAMPLE, algorithm, qubits, System.nanoTime() - sampleStart);
+        return counts;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private QuantumCircuit toCircuit(Map<String, Object> params) {
+        Object gates = params.get("gates");
+        if (!(gates instanceof List<?>)) {
+            throw new IllegalArgumentException("Circuit parameters need a 'gates' list");
+        }
+        QuantumCircuit circuit = new QuantumCircuit();
+        circuit.setName(String.valueOf(params.getOrDefault("name", "circuit")));
+        circuit.setQubits(((Number) params.getOrDefault("qubits", 1)).intValue());
+        circuit.setGates(((List<Object>) gates).stream().map(String::valueOf).toList());
+        return circuit;
+    }
+    
+    private JobResult runRandomCircuit(Map<String, Object> params, int shots, SplittableGenerator rng,
+                                       ExecutionMonitor monitor, NoiseSettings noise) {
         int qubits = (int) params.getOrDefault("qubits", 5);
         int depth = (int) params.getOrDefault("depth", 10);
         
-        Map<String, Object> results = new HashMap<>();
-        Map<String, Integer> counts = new HashMap<>();
+        QuantumCircuit circuit = new QuantumCircuit();
+        circuit.setName("random");
+        circuit.setQubits(qubits);
+        circuit.setGates(generateRandomGates(qubits, depth, rng));
         
-        // Generate random measurement outcomes
-        for (int i = 0; i < shots; i++) {
-            String state = generateRandomState(qubits);
-            counts.put(state, counts.getOrDefault(state, 0) + 1);
-        }
+        JobResult result = new JobResult("Random Circuit");
+        ShotHistogram counts = simulateCircuit("RANDOM", circuit, shots, Representation.parse(params.get("representation")),
+                result, rng, monitor, noise);
         
-        results.put("algorithm", "Random Circuit");
-        results.put("qubits", qubits);
-        results.put("depth", depth);
-        results.put("counts", counts);
-        results.put("expected_hamming_weight", qubits / 2.0);
-        results.put("actual_hamming_weight", calculateAverageHammingWeight(counts));
-        results.put("entanglement", random.nextDouble());
+        result.put("qubits", qubits);
+        result.put("depth", depth);
+        result.put("gates", circuit.getGates());
+        result.setCounts(counts);
+        result.put("expected_hamming_weight", qubits / 2.0);
+        result.put("actual_hamming_weight", counts != null ? counts.averageHammingWeight() : null);
         
-        return results;
+        return result;
     }
     
-    private String generateRandomState(int qubits) {
-        StringBuilder state = new StringBuilder();
-        for (int i = 0; i < qubits; i++) {
-            state.append(random.nextInt(2));
+    // One layer per depth step: a random gate on every qubit, two-qubit gates pairing neighbours
+    private List<String> generateRandomGates(int qubits, int depth, RandomGenerator rng) {
+        List<String> gates = new ArrayList<>();
+        for (int layer = 0; layer < depth; layer++) {
+            for (int q = 0; q < qubits; q++) {
+                String gate = RANDOM_GATE_SET[rng.nextInt(RANDOM_GATE_SET.length)];
+                switch (gate) {
+                    case "CNOT", "SWAP" -> {
+                        if (q + 1 < qubits) {
+                            gates.add(gate + " " + q + " " + (q + 1));
+                            q++;
+                        } else {
+                            gates.add("H " + q);
+                        }
+                    }
+                    case "RX", "RY", "RZ" -> gates.add(gate + " " + q + " " + (rng.nextDouble() * 2 * Math.PI));
+                    default -> gates.add(gate + " " + q);
+                }
+            }
         }
-        return state.toString();
+        return gates;
     }
     
-    private double calculateAverageHammingWeight(Map<String, Integer> counts) {
-        int total = counts.values().stream().mapToInt(Integer::intValue).sum();
-        double sum = 0;
-        
-        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
-            String state = entry.getKey();
-            int count = entry.getValue();
-            int ones = (int) state.chars().filter(ch -> ch == '1').count();
-            sum += ones * count;
+    private long parseBasisState(String bits, int qubits) {
+        if (qubits <= 0 || qubits > 62) {
+            throw new IllegalArgumentException("qubits must be between 1 and 62");
         }
-        
-        return sum / total;
+        if (bits.isEmpty() || bits.length() > qubits || !bits.matches("[01]+")) {
+            throw new IllegalArgumentException("'" + bits + "' is not a " + qubits + "-qubit basis state");
+        }
+        return Long.parseLong(bits, 2);
     }
     
     public QuantumJob getJob(String jobId) {
-        return jobStore.get(jobId);
+        return jobRepository.findById(jobId);
     }
     
     public List<QuantumJob> getUserJobs(String userId) {
-        return jobStore.values().stream()
-                .filter(job -> job.getUserId().equals(userId))
-                .toList();
+        return jobRepository.findByUser(userId);
+    }
+    
+    // One page of jobs in creation order; next_cursor is present when more jobs follow
+    public Map<String, Object> getJobs(String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<QuantumJob> jobs = new ArrayList<>(jobRepository.streamAfter(toJobRef(cursor)).limit(limit + 1L).toList());
+        Map<String, Object> page = new LinkedHashMap<>();
+        if (jobs.size() > limit) {
+            jobs.remove(limit);
+            page.put("next_cursor", JobIndex.JobRef.of(jobs.get(limit - 1)).toCursor());
+        }
+        page.put("count", jobs.size());
+        page.put("jobs", jobs);
+        return page;
     }
     
-    public List<QuantumJob> getAllJobs() {
-        return new ArrayList<>(jobStore.values());
+    // Every job after the cursor in creation order, read lazily; close the stream when done
+    public Stream<QuantumJob> streamJobs(String cursor) {
+        return jobRepository.streamAfter(toJobRef(cursor));
     }
     
+    private static JobIndex.JobRef toJobRef(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : JobIndex.JobRef.fromCursor(cursor);
+    }
+    
+    // A queued job is dropped from the queue; a running one stops at its next gate or sampling chunk
     public boolean cancelJob(String jobId) {
-        QuantumJob job = jobStore.get(jobId);
-        if (job != null && "QUEUED".equals(job.getStatus())) {
-            job.setStatus("CANCELLED");
-            log.info("Job cancelled: {}", jobId);
-            return true;
+        QuantumJob job = jobRepository.findById(jobId);
+        if (job == null) {
+            return false;
+        }
+        if (job.compareAndSetStatus("QUEUED", "CANCELLED")) {
+            dispatcher.cancelQueued(jobId);
+        } else if (!job.compareAndSetStatus("RUNNING", "CANCELLED")) {
+            return false;
         }
-        return false;
+        jobRepository.save(job);
+        events.publishStatus(job);
+        log.info("Job cancelled: {}", jobId);
+        return true;
     }
     
     public Map<String, Object> getStatistics() {
         Map<String, Object> stats = new HashMap<>();
-        stats.put("total_jobs_submitted", jobStore.size());
-        stats.put("total_jobs_completed", totalJobsProcessed);
-        
-        long queued = jobStore.values().stream().filter(j -> "QUEUED".equals(j.getStatus())).count();
-        long running = jobStore.values().stream().filter(j -> "RUNNING".equals(j.getStatus())).count();
-        long completed = jobStore.values().stream().filter(j -> "COMPLETED".equals(j.getStatus())).count();
-        long failed = jobStore.values().stream().filter(j -> "FAILED".equals(j.getStatus())).count();
-        long cancelled = jobStore.values().stream().filter(j -> "CANCELLED".equals(j.getStatus())).count();
-        
-        stats.put("queued", queued);
-        stats.put("running", running);
-        stats.put("completed", completed);
-        stats.put("failed", failed);
-        stats.put("cancelled", cancelled);
-        
-        double avgTime = jobStore.values().stream()
-                .filter(j -> j.getExecutionTime() > 0)
-                .mapToDouble(QuantumJob::getExecutionTime)
-                .average()
-                .orElse(0.0);
-        
+        stats.put("total_jobs_submitted", jobRepository.count());
+        
+        // derived from the store, so the count survives restarts
+        Map<String, Long> byStatus = jobRepository.countByStatus();
+        stats.put("total_jobs_completed", byStatus.getOrDefault("COMPLETED", 0L));
+        stats.put("queued", byStatus.getOrDefault("QUEUED", 0L));
+        stats.put("running", byStatus.getOrDefault("RUNNING", 0L));
+        stats.put("completed", byStatus.getOrDefault("COMPLETED", 0L));
+        stats.put("failed", byStatus.getOrDefault("FAILED", 0L));
+        stats.put("cancelled", byStatus.getOrDefault("CANCELLED", 0L));
+        
+        double avgTime = jobRepository.averageExecutionTime();
         stats.put("average_execution_time_seconds", String.format("%.2f", avgTime));
         
         return stats;
     }
     
     public void shutdown() {
-        executorService.shutdown();
+        dispatcher.shutdown();
+    }
+    
+    // A job on a worker or remote thread; `preempted` asks it to give its worker to a HIGH job
+    private static final class RunningJob {
+        final QuantumJob job;
+        final boolean local;
+        final long startNanos = System.nanoTime();
+        volatile boolean preempted;
+        
+        RunningJob(QuantumJob job, boolean local) {
+            this.job = job;
+            this.local = local;
+        }
+        
+        boolean isStopped() {
+            return preempted || "CANCELLED".equals(job.getStatus());
+        }
+    }
+    
+    // The noise a circuit runs under and the trajectories that sample it; an ideal model takes the exact path
+    private record NoiseSettings(NoiseModel model, int trajectories) {
+        static final NoiseSettings NONE = new NoiseSettings(NoiseModel.IDEAL, 1);
+        
+        boolean isNoisy() {
+            return !model.isIdeal();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.quantum.simulator;
+
+/**
+ * Backing store for the complex amplitudes of a {@link StateVector}.
+ */
+public interface AmplitudeStorage extends AutoCloseable {
+
+    int size();
+
+    double re(int index);
+
+    double im(int index);
+
+    void set(int index, double re, double im);
+
+    // Zeroes every amplitude
+    void clear();
+
+    boolean isOffHeap();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,48 @@
+package com.quantum.simulator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Picks where a state vector lives: heap arrays for small circuits, off-heap buffers once the
+ * qubit count reaches the threshold, memory-mapped spill files when a spill directory is set.
+ * Heap states use the Vector API kernels when {@code quantum.simulator.simd} is on and the JVM
+ * supports them.
+ */
+@Component
+public class AmplitudeStorageFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(AmplitudeStorageFactory.class);
+
+    private final int offHeapThresholdQubits;
+    private final String spillDirectory;
+    private final boolean simd;
+
+    public AmplitudeStorageFactory(@Value("${quantum.simulator.offheap-threshold-qubits:24}") int offHeapThresholdQubits,
+                                   @Value("${quantum.simulator.spill-directory:}") String spillDirectory,
+                                   @Value("${quantum.simulator.simd:true}") boolean simd) {
+        this.offHeapThresholdQubits = offHeapThresholdQubits;
+        this.spillDirectory = spillDirectory;
+        this.simd = simd;
+        log.info("Gate kernels: {}", simd ? VectorSupport.describe() : "scalar (quantum.simulator.simd=false)");
+    }
+
+    public AmplitudeStorage create(int qubits) {
+        int size = StateVector.checkedSize(qubits);
+        if (qubits < offHeapThresholdQubits) {
+            return new HeapAmplitudeStorage(size);
+        }
+        if (spillDirectory == null || spillDirectory.isBlank()) {
+            return DirectAmplitudeStorage.allocate(size);
+        }
+        return DirectAmplitudeStorage.map(size, Path.of(spillDirectory));
+    }
+
+    public StateVector newState(int qubits) {
+        return new StateVector(qubits, create(qubits), simd);
+    }
+}
@@ -0,0 +1,290 @@
+package com.quantum.simulator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Optimises a parsed gate list before simulation:
+ * <ol>
+ *   <li>cancels adjacent inverse pairs (H H, X X, CNOT CNOT, RZ(a) RZ(-a), QFT IQFT, ...), cascading through nested pairs;</li>
+ *   <li>folds every single-qubit gate into the previous operation on its qubit, producing 2x2 (U1) blocks;</li>
+ *   <li>fuses two-qubit gates with the pending single-qubit blocks on their qubits and with later gates on
+ *       the same pair into dense 4x4 (U2) blocks.</li>
+ * </ol>
+ * Each emitted gate costs one sweep over the state, so fewer gates means fewer passes over 2^n amplitudes.
+ */
+public final class CircuitCompiler {
+
+    private static final double EPS = 1e-12;
+
+    private CircuitCompiler() {
+    }
+
+    public static CompiledCircuit compile(List<Gate> gates, int qubits) {
+        int sweepsBefore = 0;
+        for (Gate gate : gates) {
+            if (gate.getType() != GateType.MEASURE) {
+                sweepsBefore++;
+            }
+        }
+        List<Gate> reduced = cancelInverses(gates, qubits);
+        List<Gate> fused = fuse(reduced, qubits);
+
+        CompilationStats stats = new CompilationStats(gates.size(), fused.size(), sweepsBefore, fused.size(),
+                sweepsBefore - reduced.size(), reduced.size() - fused.size());
+        return new CompiledCircuit(qubits, fused, stats);
+    }
+
+    static List<Gate> cancelInverses(List<Gate> gates, int qubits) {
+        Gate[] out = new Gate[gates.size()];
+        int n = 0;
+        // indices of the still-live gates touching each qubit, most recent on top
+        List<Deque<Integer>> live = new ArrayList<>(qubits);
+        for (int q = 0; q < qubits; q++) {
+            live.add(new ArrayDeque<>());
+        }
+
+        for (Gate gate : gates) {
+            if (gate.getType() == GateType.MEASURE) {
+                continue;
+            }
+            int[] qs = gate.getQubits();
+            Integer top = live.get(qs[0]).peek();
+            boolean cancels = top != null && isInverse(out[top], gate);
+            for (int i = 1; cancels && i < qs.length; i++) {
+                cancels = top.equals(live.get(qs[i]).peek());
+            }
+            if (cancels) {
+                out[top] = null;
+                for (int q : qs) {
+                    live.get(q).pop();
+                }
+            } else {
+                out[n] = gate;
+                for (int q : qs) {
+                    live.get(q).push(n);
+                }
+                n++;
+            }
+        }
+
+        List<Gate> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            if (out[i] != null) {
+                result.add(out[i]);
+            }
+        }
+        return result;
+    }
+
+    static boolean isInverse(Gate a, Gate b) {
+        if (a.getType().isRegister() && b.getType().isRegister()) {
+            return a.getType() != b.getType() && Arrays.equals(a.getQubits(), b.getQubits());
+        }
+        if (a.getType() != b.getType()) {
+            return false;
+        }
+        boolean sameQubits = Arrays.equals(a.getQubits(), b.getQubits());
+        return switch (a.getType()) {
+            case H, X, Y, Z, CNOT -> sameQubits;
+            case SWAP -> sameQubits || (a.qubit(0) == b.qubit(1) && a.qubit(1) == b.qubit(0));
+            case RX, RY, RZ -> sameQubits && Math.abs(Math.IEEEremainder(a.getAngle() + b.getAngle(), 4 * Math.PI)) < EPS;
+            default -> false;
+        };
+    }
+
+    static List<Gate> fuse(List<Gate> gates, int qubits) {
+        List<Op> ops = new ArrayList<>(gates.size());
+        int[] last = new int[qubits];
+        Arrays.fill(last, -1);
+
+        for (Gate gate : gates) {
+            if (gate.getType().isRegister()) {
+                // a barrier: nothing is fused into or across a QFT
+                ops.add(new Op(gate));
+                for (int q : gate.getQubits()) {
+                    last[q] = -1;
+                }
+                continue;
+            }
+            if (gate.getType().getArity() == 1) {
+                int q = gate.qubit(0);
+                if (last[q] >= 0) {
+                    ops.get(last[q]).foldSingle(q, gate.getMatrix());
+                } else {
+                    ops.add(new Op(gate));
+                    last[q] = ops.size() - 1;
+                }
+                continue;
+            }
+
+            int a = gate.qubit(0);
+            int b = gate.qubit(1);
+            if (last[a] >= 0 && last[a] == last[b]) {
+                ops.get(last[a]).foldPair(a, twoQubitMatrix(gate));
+                continue;
+            }
+            Op op = new Op(gate);
+            for (int q : gate.getQubits()) {
+                int j = last[q];
+                if (j >= 0 && ops.get(j).qubits.length == 1) {
+                    // nothing after ops[j] touches q, so it can move forward into this block
+                    op.absorbBefore(ops.get(j));
+                    ops.set(j, null);
+                }
+            }
+            ops.add(op);
+            last[a] = ops.size() - 1;
+            last[b] = ops.size() - 1;
+        }
+
+        List<Gate> result = new ArrayList<>(ops.size());
+        for (Op op : ops) {
+            if (op != null && !op.isIdentity()) {
+                result.add(op.toGate());
+            }
+        }
+        return result;
+    }
+
+    static double[] twoQubitMatrix(Gate gate) {
+        double[] m = new double[32];
+        switch (gate.getType()) {
+            case CNOT -> {
+                // control is qubit(0) = local bit 0, so |01> <-> |11> in (b1 b0) order
+                set(m, 0, 0);
+                set(m, 3, 1);
+                set(m, 2, 2);
+                set(m, 1, 3);
+            }
+            case SWAP -> {
+                set(m, 0, 0);
+                set(m, 2, 1);
+                set(m, 1, 2);
+                set(m, 3, 3);
+            }
+            case U2 -> System.arraycopy(gate.getMatrix(), 0, m, 0, 32);
+            default -> throw new IllegalArgumentException("Not a two-qubit gate: " + gate);
+        }
+        return m;
+    }
+
+    private static void set(double[] m, int row, int col) {
+        m[(row * 4 + col) * 2] = 1.0;
+    }
+
+    // Lifts a 2x2 matrix acting on local bit `pos` to the 4x4 block
+    static double[] embed(double[] u, int pos) {
+        double[] e = new double[32];
+        for (int r = 0; r < 4; r++) {
+            for (int c = 0; c < 4; c++) {
+                int ur = pos == 0 ? r & 1 : r >> 1;
+                int uc = pos == 0 ? c & 1 : c >> 1;
+                int other = pos == 0 ? 2 : 1;
+                if ((r & other) == (c & other)) {
+                    int src = (ur * 2 + uc) * 2;
+                    int dst = (r * 4 + c) * 2;
+                    e[dst] = u[src];
+                    e[dst + 1] = u[src + 1];
+                }
+            }
+        }
+        return e;
+    }
+
+    // Re-expresses a 4x4 block with its two qubits exchanged (swaps local indices 1 and 2)
+    static double[] swapOrder(double[] m) {
+        int[] p = {0, 2, 1, 3};
+        double[] out = new double[32];
+        for (int r = 0; r < 4; r++) {
+            for (int c = 0; c < 4; c++) {
+                int src = (p[r] * 4 + p[c]) * 2;
+                int dst = (r * 4 + c) * 2;
+                out[dst] = m[src];
+                out[dst + 1] = m[src + 1];
+            }
+        }
+        return out;
+    }
+
+    static double[] multiply(double[] x, double[] y, int dim) {
+        double[] out = new double[dim * dim * 2];
+        for (int r = 0; r < dim; r++) {
+            for (int c = 0; c < dim; c++) {
+                double sr = 0.0;
+                double si = 0.0;
+                for (int k = 0; k < dim; k++) {
+                    int a = (r * dim + k) * 2;
+                    int b = (k * dim + c) * 2;
+                    sr += x[a] * y[b] - x[a + 1] * y[b + 1];
+                    si += x[a] * y[b + 1] + x[a + 1] * y[b];
+                }
+                out[(r * dim + c) * 2] = sr;
+                out[(r * dim + c) * 2 + 1] = si;
+            }
+        }
+        return out;
+    }
+
+    static boolean isIdentity(double[] m, int dim) {
+        for (int r = 0; r < dim; r++) {
+            for (int c = 0; c < dim; c++) {
+                int i = (r * dim + c) * 2;
+                double expected = r == c ? 1.0 : 0.0;
+                if (Math.abs(m[i] - expected) > EPS || Math.abs(m[i + 1]) > EPS) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // A pending operation; keeps the original gate (and its cheaper kernel) until something is fused into it
+    private static final class Op {
+        final int[] qubits;
+        final Gate original;
+        double[] matrix;
+
+        Op(Gate gate) {
+            this.qubits = gate.getQubits();
+            this.original = gate;
+        }
+
+        double[] matrix() {
+            if (matrix == null) {
+                matrix = qubits.length == 1 ? original.getMatrix().clone() : twoQubitMatrix(original);
+            }
+            return matrix;
+        }
+
+        void foldSingle(int q, double[] u) {
+            if (qubits.length == 1) {
+                matrix = multiply(u, matrix(), 2);
+            } else {
+                matrix = multiply(embed(u, q == qubits[0] ? 0 : 1), matrix(), 4);
+            }
+        }
+
+        void foldPair(int firstQubit, double[] g) {
+            matrix = multiply(firstQubit == qubits[0] ? g : swapOrder(g), matrix(), 4);
+        }
+
+        void absorbBefore(Op single) {
+            matrix = multiply(matrix(), embed(single.matrix(), single.qubits[0] == qubits[0] ? 0 : 1), 4);
+        }
+
+        boolean isIdentity() {
+            return matrix != null && CircuitCompiler.isIdentity(matrix, qubits.length == 1 ? 2 : 4);
+        }
+
+        Gate toGate() {
+            if (matrix == null) {
+                return original;
+            }
+            return new Gate(qubits.length == 1 ? GateType.U1 : GateType.U2, qubits, matrix);
+        }
+    }
+}
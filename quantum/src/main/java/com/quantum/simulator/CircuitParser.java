@@ -0,0 +1,129 @@
+package com.quantum.simulator;
+
+import com.quantum.model.QuantumCircuit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns the textual gate list of a {@link QuantumCircuit} ("H 0", "CNOT 0 1", "RX 2 1.5708")
+ * into {@link Gate}s once, up front, so the simulator never touches strings while sweeping.
+ */
+public final class CircuitParser {
+
+    private CircuitParser() {
+    }
+
+    public static List<Gate> parse(QuantumCircuit circuit) {
+        return parse(circuit.getGates(), circuit.getQubits());
+    }
+
+    public static List<Gate> parse(List<String> lines, int qubits) {
+        if (qubits <= 0) {
+            throw new IllegalArgumentException("Circuit must have at least one qubit");
+        }
+        List<Gate> gates = new ArrayList<>(lines == null ? 0 : lines.size());
+        if (lines == null) {
+            return gates;
+        }
+        for (String line : lines) {
+            if (line == null || line.isBlank()) {
+                continue;
+            }
+            gates.add(parseLine(line.trim(), qubits));
+        }
+        return gates;
+    }
+
+    static Gate parseLine(String line, int qubits) {
+        String[] tokens = line.split("[\\s,]+");
+        GateType type = GateType.fromToken(tokens[0]);
+        int expected = 1 + type.getArity() + type.getAngles();
+        if (tokens.length != expected) {
+            throw new IllegalArgumentException("Gate '" + line + "' expects " + (expected - 1) + " operand(s)");
+        }
+
+        if (type.isRegister()) {
+            return new Gate(type, parseRegister(tokens[1], tokens[2], qubits, line), 0.0);
+        }
+
+        int[] targets = new int[type.getArity()];
+        for (int i = 0; i < targets.length; i++) {
+            int q = parseQubit(tokens[1 + i], line);
+            if (q >= qubits) {
+                throw new IllegalArgumentException("Qubit " + q + " out of range in '" + line + "'");
+            }
+            for (int j = 0; j < i; j++) {
+                if (targets[j] == q) {
+                    throw new IllegalArgumentException("Repeated qubit in '" + line + "'");
+                }
+            }
+            targets[i] = q;
+        }
+
+        double angle = type.getAngles() > 0 ? parseAngle(tokens[expected - 1], line) : 0.0;
+        return new Gate(type, targets, angle);
+    }
+
+    // "QFT 2 5" covers qubits 2, 3, 4 and 5 with qubit 2 least significant
+    private static int[] parseRegister(String first, String last, int qubits, String line) {
+        int a = parseQubit(first, line);
+        int b = parseQubit(last, line);
+        if (b >= qubits) {
+            throw new IllegalArgumentException("Qubit " + b + " out of range in '" + line + "'");
+        }
+        if (a > b) {
+            throw new IllegalArgumentException("Register must be given as 'first last' with first <= last in '" + line + "'");
+        }
+        int[] register = new int[b - a + 1];
+        for (int i = 0; i < register.length; i++) {
+            register[i] = a + i;
+        }
+        return register;
+    }
+
+    private static int parseQubit(String token, String line) {
+        try {
+            int q = Integer.parseInt(token);
+            if (q < 0) {
+                throw new IllegalArgumentException("Negative qubit index in '" + line + "'");
+            }
+            return q;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid qubit index '" + token + "' in '" + line + "'");
+        }
+    }
+
+    // Accepts plain doubles as well as "pi", "-pi/2", "3*pi/4"
+    static double parseAngle(String token, String line) {
+        String t = token.toLowerCase();
+        try {
+            if (!t.contains("pi")) {
+                return Double.parseDouble(t);
+            }
+            double sign = 1.0;
+            if (t.startsWith("-")) {
+                sign = -1.0;
+                t = t.substring(1);
+            }
+            double numerator = 1.0;
+            double denominator = 1.0;
+            int slash = t.indexOf('/');
+            if (slash >= 0) {
+                denominator = Double.parseDouble(t.substring(slash + 1));
+                t = t.substring(0, slash);
+            }
+            int star = t.indexOf('*');
+            if (star >= 0) {
+                numerator = Double.parseDouble(t.substring(0, star));
+                t = t.substring(star + 1);
+            }
+            if (!"pi".equals(t)) {
+                throw new NumberFormatException(token);
+            }
+            return sign * numerator * Math.PI / denominator;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid angle '" + token + "' in '" + line + "'");
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.quantum.simulator;
+
+import com.quantum.model.QuantumCircuit;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Circuit whose gate lines may name parameters in braces, e.g. "RX 0 {theta}". Lines before the
+ * first placeholder form the prefix every binding shares, so a batch parses, compiles and simulates
+ * it once; only the remaining lines are bound per variant.
+ */
+public final class CircuitTemplate {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{([A-Za-z_][A-Za-z0-9_]*)}");
+
+    private final int qubits;
+    private final List<String> prefix;
+    private final List<String> body;
+    private final Set<String> parameters = new LinkedHashSet<>();
+
+    public CircuitTemplate(QuantumCircuit circuit) {
+        if (circuit.getGates() == null) {
+            throw new IllegalArgumentException("Circuit template needs a 'gates' list");
+        }
+        this.qubits = circuit.getQubits();
+        List<String> lines = circuit.getGates();
+        int split = lines.size();
+        for (int i = 0; i < lines.size(); i++) {
+            Matcher m = PLACEHOLDER.matcher(lines.get(i));
+            while (m.find()) {
+                parameters.add(m.group(1));
+                split = Math.min(split, i);
+            }
+        }
+        this.prefix = List.copyOf(lines.subList(0, split));
+        this.body = List.copyOf(lines.subList(split, lines.size()));
+    }
+
+    public int getQubits() {
+        return qubits;
+    }
+
+    public List<String> getPrefix() {
+        return prefix;
+    }
+
+    public Set<String> getParameters() {
+        return parameters;
+    }
+
+    // The lines after the prefix with every placeholder replaced by its value
+    public List<String> bind(Map<String, Object> values) {
+        List<String> bound = new ArrayList<>(body.size());
+        for (String line : body) {
+            Matcher m = PLACEHOLDER.matcher(line);
+            StringBuilder sb = new StringBuilder();
+            while (m.find()) {
+                Object value = values.get(m.group(1));
+                if (value == null) {
+                    throw new IllegalArgumentException("No value for '{" + m.group(1) + "}' in '" + line + "'");
+                }
+                m.appendReplacement(sb, Matcher.quoteReplacement(value.toString()));
+            }
+            m.appendTail(sb);
+            bound.add(sb.toString());
+        }
+        return bound;
+    }
+}
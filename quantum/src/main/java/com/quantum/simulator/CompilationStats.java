@@ -0,0 +1,59 @@
+package com.quantum.simulator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class CompilationStats {
+
+    private final int gatesBefore;
+    private final int gatesAfter;
+    private final int sweepsBefore;
+    private final int sweepsAfter;
+    private final int cancelled;
+    private final int fused;
+
+    public CompilationStats(int gatesBefore, int gatesAfter, int sweepsBefore, int sweepsAfter,
+                            int cancelled, int fused) {
+        this.gatesBefore = gatesBefore;
+        this.gatesAfter = gatesAfter;
+        this.sweepsBefore = sweepsBefore;
+        this.sweepsAfter = sweepsAfter;
+        this.cancelled = cancelled;
+        this.fused = fused;
+    }
+
+    public int getGatesBefore() {
+        return gatesBefore;
+    }
+
+    public int getGatesAfter() {
+        return gatesAfter;
+    }
+
+    public int getSweepsBefore() {
+        return sweepsBefore;
+    }
+
+    public int getSweepsAfter() {
+        return sweepsAfter;
+    }
+
+    public int getCancelled() {
+        return cancelled;
+    }
+
+    public int getFused() {
+        return fused;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("gates_before", gatesBefore);
+        map.put("gates_after", gatesAfter);
+        map.put("sweeps_before", sweepsBefore);
+        map.put("sweeps_after", sweepsAfter);
+        map.put("cancelled_gates", cancelled);
+        map.put("fused_gates", fused);
+        return map;
+    }
+}
@@ -0,0 +1,28 @@
+package com.quantum.simulator;
+
+import java.util.List;
+
+public final class CompiledCircuit {
+
+    private final int qubits;
+    private final List<Gate> gates;
+    private final CompilationStats stats;
+
+    public CompiledCircuit(int qubits, List<Gate> gates, CompilationStats stats) {
+        this.qubits = qubits;
+        this.gates = gates;
+        this.stats = stats;
+    }
+
+    public int getQubits() {
+        return qubits;
+    }
+
+    public List<Gate> getGates() {
+        return gates;
+    }
+
+    public CompilationStats getStats() {
+        return stats;
+    }
+}
@@ -0,0 +1,160 @@
+package com.quantum.simulator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Off-heap amplitudes, interleaved (re, im) in chunks of at most 2^26 complex values (1 GiB)
+ * because a single NIO buffer is int-indexed. Chunks are either direct buffers or regions of a
+ * memory-mapped spill file that is deleted when the storage is closed.
+ * <p>
+ * Direct buffers count against {@code -XX:MaxDirectMemorySize}, which defaults to the maximum heap
+ * size; set it, or a spill directory, for states larger than the heap. Closing drops the buffers and
+ * the spill file's channel; the native memory and mapping go with the buffers at the next GC, which
+ * the JDK forces when a direct allocation would otherwise exceed the limit.
+ */
+public final class DirectAmplitudeStorage implements AmplitudeStorage {
+
+    private static final int CHUNK_SHIFT = 26;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    private final int size;
+    private final ByteBuffer[] buffers;
+    private final DoubleBuffer[] chunks;
+    private final FileChannel channel;
+    private final Path file;
+    private boolean closed;
+
+    private DirectAmplitudeStorage(int size, ByteBuffer[] buffers, FileChannel channel, Path file) {
+        this.size = size;
+        this.buffers = buffers;
+        this.chunks = new DoubleBuffer[buffers.length];
+        for (int c = 0; c < buffers.length; c++) {
+            chunks[c] = buffers[c].order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        }
+        this.channel = channel;
+        this.file = file;
+    }
+
+    public static DirectAmplitudeStorage allocate(int size) {
+        ByteBuffer[] buffers = new ByteBuffer[chunkCount(size)];
+        try {
+            for (int c = 0; c < buffers.length; c++) {
+                buffers[c] = ByteBuffer.allocateDirect(chunkBytes(size, c));
+            }
+        } catch (OutOfMemoryError e) {
+            release(buffers);
+            throw new IllegalStateException("Cannot allocate " + 16L * size + " bytes of direct memory for a "
+                    + Integer.numberOfTrailingZeros(size) + "-qubit state; raise -XX:MaxDirectMemorySize"
+                    + " or set quantum.simulator.spill-directory", e);
+        }
+        return new DirectAmplitudeStorage(size, buffers, null, null);
+    }
+
+    public static DirectAmplitudeStorage map(int size, Path directory) {
+        try {
+            Files.createDirectories(directory);
+            Path file = Files.createTempFile(directory, "state-", ".amp");
+            FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+            ByteBuffer[] buffers = new ByteBuffer[chunkCount(size)];
+            long offset = 0;
+            try {
+                for (int c = 0; c < buffers.length; c++) {
+                    int bytes = chunkBytes(size, c);
+                    // a fresh file region reads back as zeros, so no explicit clear is needed
+                    buffers[c] = channel.map(FileChannel.MapMode.READ_WRITE, offset, bytes);
+                    offset += bytes;
+                }
+            } catch (IOException | RuntimeException e) {
+                release(buffers);
+                channel.close();
+                throw e;
+            }
+            return new DirectAmplitudeStorage(size, buffers, channel, file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map state vector under " + directory, e);
+        }
+    }
+
+    // Drops the buffers so the GC can free or unmap them
+    private static void release(ByteBuffer[] buffers) {
+        Arrays.fill(buffers, null);
+    }
+
+    private static int chunkCount(int size) {
+        return (int) ((size + (long) CHUNK_MASK) >>> CHUNK_SHIFT);
+    }
+
+    private static int chunkBytes(int size, int chunk) {
+        long complexValues = Math.min(1L << CHUNK_SHIFT, size - ((long) chunk << CHUNK_SHIFT));
+        return (int) (complexValues * 2 * Double.BYTES);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public double re(int index) {
+        return chunks[index >>> CHUNK_SHIFT].get((index & CHUNK_MASK) << 1);
+    }
+
+    @Override
+    public double im(int index) {
+        return chunks[index >>> CHUNK_SHIFT].get(((index & CHUNK_MASK) << 1) + 1);
+    }
+
+    @Override
+    public void set(int index, double re, double im) {
+        DoubleBuffer chunk = chunks[index >>> CHUNK_SHIFT];
+        int offset = (index & CHUNK_MASK) << 1;
+        chunk.put(offset, re);
+        chunk.put(offset + 1, im);
+    }
+
+    @Override
+    public void clear() {
+        for (DoubleBuffer chunk : chunks) {
+            for (int i = 0, n = chunk.capacity(); i < n; i++) {
+                chunk.put(i, 0.0);
+            }
+        }
+    }
+
+    @Override
+    public boolean isOffHeap() {
+        return true;
+    }
+
+    public boolean isMapped() {
+        return channel != null;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        // a stray access after close fails on null
+        Arrays.fill(chunks, null);
+        release(buffers);
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not close spill file " + file, e);
+            }
+        }
+    }
+}
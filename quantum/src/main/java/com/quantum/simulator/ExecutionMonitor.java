@@ -0,0 +1,69 @@
+package com.quantum.simulator;
+
+import com.quantum.sampling.MeasurementSampler;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+
+/**
+ * Progress callbacks from a running simulation: gates (or algorithm rounds) while the state evolves,
+ * shots while it is sampled. Sampling runs in parallel chunks, so {@link #sampled} may be called
+ * from several threads at once. The simulation polls {@link #checkCancelled} before every gate and
+ * after every sampling chunk; a stopped run unwinds with a {@link CancellationException}, closing
+ * its state vector on the way out.
+ */
+public interface ExecutionMonitor {
+
+    ExecutionMonitor NONE = new ExecutionMonitor() {
+    };
+
+    default void simulated(int done, int total) {
+    }
+
+    default void sampled(int done, int total) {
+    }
+
+    default boolean isCancelled() {
+        return false;
+    }
+
+    default void checkCancelled() {
+        if (isCancelled()) {
+            throw new CancellationException("Simulation stopped");
+        }
+    }
+
+    // Turns the sampler's per-chunk shot counts into cumulative sampled() calls
+    default IntConsumer shotCounter(int shots) {
+        if (this == NONE) {
+            return MeasurementSampler.NO_PROGRESS;
+        }
+        AtomicInteger done = new AtomicInteger();
+        return n -> {
+            checkCancelled();
+            sampled(done.addAndGet(n), shots);
+        };
+    }
+
+    // `monitor`'s progress callbacks, stopped once `cancelled` turns true
+    static ExecutionMonitor cancellable(ExecutionMonitor monitor, BooleanSupplier cancelled) {
+        return new ExecutionMonitor() {
+            @Override
+            public void simulated(int done, int total) {
+                monitor.simulated(done, total);
+            }
+
+            @Override
+            public void sampled(int done, int total) {
+                monitor.sampled(done, total);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return cancelled.getAsBoolean();
+            }
+        };
+    }
+}
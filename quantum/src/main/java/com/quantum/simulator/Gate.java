@@ -0,0 +1,86 @@
+package com.quantum.simulator;
+
+/**
+ * A parsed gate with its unitary precomputed, so applying it never allocates.
+ * Single-qubit matrices are packed row-major as {m00r, m00i, m01r, m01i, m10r, m10i, m11r, m11i};
+ * fused two-qubit blocks are 4x4 in the same layout, with local index (bit of qubit(0)) + 2 * (bit of qubit(1)).
+ */
+public final class Gate {
+
+    private static final double INV_SQRT2 = 1.0 / Math.sqrt(2.0);
+
+    private final GateType type;
+    private final int[] qubits;
+    private final double angle;
+    private final double[] matrix;
+
+    public Gate(GateType type, int[] qubits, double angle) {
+        this.type = type;
+        this.qubits = qubits;
+        this.angle = angle;
+        this.matrix = type.getArity() == 1 || type == GateType.CNOT ? singleQubitMatrix(type, angle) : null;
+    }
+
+    public Gate(GateType type, int[] qubits, double[] matrix) {
+        if (!type.isFused() || matrix.length != 2 << (2 * type.getArity())) {
+            throw new IllegalArgumentException("Explicit matrices are only for fused gates");
+        }
+        this.type = type;
+        this.qubits = qubits;
+        this.angle = 0.0;
+        this.matrix = matrix;
+    }
+
+    public GateType getType() {
+        return type;
+    }
+
+    public int[] getQubits() {
+        return qubits;
+    }
+
+    public int qubit(int i) {
+        return qubits[i];
+    }
+
+    public double getAngle() {
+        return angle;
+    }
+
+    public double[] getMatrix() {
+        return matrix;
+    }
+
+    static double[] singleQubitMatrix(GateType type, double theta) {
+        double c = Math.cos(theta / 2);
+        double s = Math.sin(theta / 2);
+        return switch (type) {
+            case H -> new double[] {INV_SQRT2, 0, INV_SQRT2, 0, INV_SQRT2, 0, -INV_SQRT2, 0};
+            case X, CNOT -> new double[] {0, 0, 1, 0, 1, 0, 0, 0};
+            case Y -> new double[] {0, 0, 0, -1, 0, 1, 0, 0};
+            case Z -> new double[] {1, 0, 0, 0, 0, 0, -1, 0};
+            case S -> new double[] {1, 0, 0, 0, 0, 0, 0, 1};
+            case T -> new double[] {1, 0, 0, 0, 0, 0, INV_SQRT2, INV_SQRT2};
+            case RX -> new double[] {c, 0, 0, -s, 0, -s, c, 0};
+            case RY -> new double[] {c, 0, -s, 0, s, 0, c, 0};
+            case RZ -> new double[] {c, -s, 0, 0, 0, 0, c, s};
+            case MEASURE -> new double[] {1, 0, 0, 0, 0, 0, 1, 0};
+            default -> throw new IllegalArgumentException("No single-qubit matrix for " + type);
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(type.name());
+        if (type.isRegister()) {
+            return sb.append(' ').append(qubits[0]).append(' ').append(qubits[qubits.length - 1]).toString();
+        }
+        for (int q : qubits) {
+            sb.append(' ').append(q);
+        }
+        if (type.getAngles() > 0) {
+            sb.append(' ').append(angle);
+        }
+        return sb.toString();
+    }
+}
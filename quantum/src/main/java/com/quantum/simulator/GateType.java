@@ -0,0 +1,77 @@
+package com.quantum.simulator;
+
+import java.util.Locale;
+
+public enum GateType {
+    H(1, 0),
+    X(1, 0),
+    Y(1, 0),
+    Z(1, 0),
+    S(1, 0),
+    T(1, 0),
+    RX(1, 1),
+    RY(1, 1),
+    RZ(1, 1),
+    CNOT(2, 0),
+    SWAP(2, 0),
+    MEASURE(1, 0),
+    // quantum Fourier transform (and inverse) of the register spanning the two operand qubits
+    QFT(2, 0, false, true),
+    IQFT(2, 0, false, true),
+    // dense blocks produced by CircuitCompiler; never parsed from circuit text
+    U1(1, 0, true),
+    U2(2, 0, true);
+
+    private final int arity;
+    private final int angles;
+    private final boolean fused;
+    private final boolean register;
+
+    GateType(int arity, int angles) {
+        this(arity, angles, false, false);
+    }
+
+    GateType(int arity, int angles, boolean fused) {
+        this(arity, angles, fused, false);
+    }
+
+    GateType(int arity, int angles, boolean fused, boolean register) {
+        this.arity = arity;
+        this.angles = angles;
+        this.fused = fused;
+        this.register = register;
+    }
+
+    public boolean isFused() {
+        return fused;
+    }
+
+    // Operands name the first and last qubit of a contiguous register; the gate acts on all of them
+    public boolean isRegister() {
+        return register;
+    }
+
+    public int getArity() {
+        return arity;
+    }
+
+    public int getAngles() {
+        return angles;
+    }
+
+    public static GateType fromToken(String token) {
+        String name = token.toUpperCase(Locale.ROOT);
+        if ("CX".equals(name)) {
+            return CNOT;
+        }
+        try {
+            GateType type = valueOf(name);
+            if (!type.fused) {
+                return type;
+            }
+        } catch (IllegalArgumentException e) {
+            // fall through
+        }
+        throw new IllegalArgumentException("Unsupported gate: " + token);
+    }
+}
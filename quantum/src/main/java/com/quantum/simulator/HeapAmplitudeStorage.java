@@ -0,0 +1,59 @@
+package com.quantum.simulator;
+
+import java.util.Arrays;
+
+public final class HeapAmplitudeStorage implements AmplitudeStorage {
+
+    private final double[] re;
+    private final double[] im;
+
+    public HeapAmplitudeStorage(int size) {
+        this.re = new double[size];
+        this.im = new double[size];
+    }
+
+    public double[] real() {
+        return re;
+    }
+
+    public double[] imag() {
+        return im;
+    }
+
+    @Override
+    public int size() {
+        return re.length;
+    }
+
+    @Override
+    public double re(int index) {
+        return re[index];
+    }
+
+    @Override
+    public double im(int index) {
+        return im[index];
+    }
+
+    @Override
+    public void set(int index, double re, double im) {
+        this.re[index] = re;
+        this.im[index] = im;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(re, 0.0);
+        Arrays.fill(im, 0.0);
+    }
+
+    @Override
+    public boolean isOffHeap() {
+        return false;
+    }
+
+    @Override
+    public void close() {
+        // reclaimed by the GC
+    }
+}
@@ -0,0 +1,11 @@
+package com.quantum.simulator;
+
+import com.quantum.sampling.ShotHistogram;
+
+/**
+ * Sampled outcome of a circuit, with the representation the state ended in, how many
+ * amplitudes it held, and the time spent evolving the state and drawing the shots.
+ */
+public record Measurement(ShotHistogram counts, Representation representation, long storedAmplitudes,
+                          long simulateNanos, long sampleNanos) {
+}
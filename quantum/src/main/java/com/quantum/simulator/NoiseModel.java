@@ -0,0 +1,192 @@
+package com.quantum.simulator;
+
+import com.quantum.model.QuantumJob;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Error rates for trajectory simulation, per gate type. After a gate, its qubits are depolarized
+ * with the gate's probability (a random X, Y or Z; two-qubit gates draw one of the 15 non-identity
+ * Pauli pairs) and each then relaxes towards |0> with the gate's amplitude-damping probability.
+ * Readout flips each measured bit, 0 to 1 with {@code p01} and 1 to 0 with {@code p10}.
+ * The backend presets approximate published calibration data: a recent IBM heavy-hex device and
+ * Google's Sycamore as characterised in the 2019 supremacy experiment.
+ */
+public final class NoiseModel {
+
+    public static final NoiseModel IDEAL = new NoiseModel(new double[GateType.values().length],
+            new double[GateType.values().length], 0.0, 0.0);
+
+    private static final NoiseModel IBM_QUANTUM = preset(2.5e-4, 5e-3, 3e-4, 3e-3, 0.01, 0.02);
+    private static final NoiseModel GOOGLE_SYCAMORE = preset(1.6e-3, 6.2e-3, 1.6e-3, 7.5e-4, 0.01, 0.065);
+
+    private final double[] depolarizing;
+    private final double[] damping;
+    private final double p01;
+    private final double p10;
+
+    private NoiseModel(double[] depolarizing, double[] damping, double p01, double p10) {
+        this.depolarizing = depolarizing;
+        this.damping = damping;
+        this.p01 = p01;
+        this.p10 = p10;
+    }
+
+    // Single-qubit and two-qubit error rates; SWAP compiles to three two-qubit gates on hardware
+    private static NoiseModel preset(double depolarizing1, double depolarizing2, double damping1, double damping2,
+                                     double p01, double p10) {
+        double[] depolarizing = new double[GateType.values().length];
+        double[] damping = new double[GateType.values().length];
+        for (GateType type : GateType.values()) {
+            boolean twoQubit = type.getArity() == 2;
+            depolarizing[type.ordinal()] = twoQubit ? depolarizing2 : depolarizing1;
+            damping[type.ordinal()] = twoQubit ? damping2 : damping1;
+        }
+        depolarizing[GateType.SWAP.ordinal()] = 1 - Math.pow(1 - depolarizing2, 3);
+        damping[GateType.SWAP.ordinal()] = 1 - Math.pow(1 - damping2, 3);
+        depolarizing[GateType.MEASURE.ordinal()] = 0.0;
+        damping[GateType.MEASURE.ordinal()] = 0.0;
+        return new NoiseModel(depolarizing, damping, p01, p10);
+    }
+
+    // What a job on `backend` runs with when it names no noise: the emulated devices are noisy
+    public static NoiseModel forBackend(QuantumJob.Backend backend) {
+        if (backend == null) {
+            return IDEAL;
+        }
+        return switch (backend) {
+            case IBM_QUANTUM -> IBM_QUANTUM;
+            case GOOGLE_SYCAMORE -> GOOGLE_SYCAMORE;
+            default -> IDEAL;
+        };
+    }
+
+    public static NoiseModel preset(String name) {
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "none", "ideal" -> IDEAL;
+            case "ibm_quantum" -> IBM_QUANTUM;
+            case "google_sycamore" -> GOOGLE_SYCAMORE;
+            default -> throw new IllegalArgumentException(
+                    "noise preset must be one of none, ibm_quantum or google_sycamore, got '" + name + "'");
+        };
+    }
+
+    /**
+     * A job's "noise" parameter: a preset name, or a map with an optional "preset" (default
+     * {@code base}) overridden by "depolarizing" and "amplitude_damping" (a probability for every
+     * gate, or a map from gate name or "default" to a probability) and "readout" (a probability for
+     * both directions, or {"p01": .., "p10": ..}).
+     */
+    public static NoiseModel parse(Object spec, NoiseModel base) {
+        if (spec == null) {
+            return base;
+        }
+        if (!(spec instanceof Map<?, ?> map)) {
+            return preset(spec.toString());
+        }
+        NoiseModel start = map.get("preset") != null ? preset(map.get("preset").toString()) : base;
+        double[] depolarizing = perGate(map.get("depolarizing"), start.depolarizing, "depolarizing");
+        double[] damping = perGate(map.get("amplitude_damping"), start.damping, "amplitude_damping");
+        double p01 = start.p01;
+        double p10 = start.p10;
+        Object readout = map.get("readout");
+        if (readout instanceof Map<?, ?> flips) {
+            p01 = flips.get("p01") != null ? probability(flips.get("p01"), "readout.p01") : p01;
+            p10 = flips.get("p10") != null ? probability(flips.get("p10"), "readout.p10") : p10;
+        } else if (readout != null) {
+            p01 = p10 = probability(readout, "readout");
+        }
+        return new NoiseModel(depolarizing, damping, p01, p10);
+    }
+
+    private static double[] perGate(Object value, double[] base, String name) {
+        double[] rates = base.clone();
+        if (value instanceof Map<?, ?> byGate) {
+            Object fallback = byGate.get("default");
+            if (fallback != null) {
+                Arrays.fill(rates, probability(fallback, name + ".default"));
+                rates[GateType.MEASURE.ordinal()] = 0.0;
+            }
+            for (Map.Entry<?, ?> entry : byGate.entrySet()) {
+                String gate = entry.getKey().toString();
+                if (!"default".equals(gate)) {
+                    rates[GateType.fromToken(gate).ordinal()] = probability(entry.getValue(), name + "." + gate);
+                }
+            }
+        } else if (value != null) {
+            Arrays.fill(rates, probability(value, name));
+            rates[GateType.MEASURE.ordinal()] = 0.0;
+        }
+        return rates;
+    }
+
+    private static double probability(Object value, String name) {
+        double p;
+        try {
+            p = value instanceof Number number ? number.doubleValue() : Double.parseDouble(value.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a probability, got '" + value + "'");
+        }
+        if (!(p >= 0.0 && p <= 1.0)) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1, got " + p);
+        }
+        return p;
+    }
+
+    public double depolarizing(GateType type) {
+        return depolarizing[type.ordinal()];
+    }
+
+    public double damping(GateType type) {
+        return damping[type.ordinal()];
+    }
+
+    public double readout01() {
+        return p01;
+    }
+
+    public double readout10() {
+        return p10;
+    }
+
+    public boolean hasReadoutError() {
+        return p01 > 0.0 || p10 > 0.0;
+    }
+
+    public boolean isIdeal() {
+        return !hasReadoutError() && Arrays.stream(depolarizing).allMatch(p -> p == 0.0)
+                && Arrays.stream(damping).allMatch(p -> p == 0.0);
+    }
+
+    // Chance that a single-qubit gate, a CNOT or a readout comes out right
+    public Map<String, Double> fidelities() {
+        Map<String, Double> map = new LinkedHashMap<>();
+        map.put("single_qubit_gate", 1.0 - depolarizing(GateType.H));
+        map.put("two_qubit_gate", 1.0 - depolarizing(GateType.CNOT));
+        map.put("readout", 1.0 - (p01 + p10) / 2);
+        return map;
+    }
+
+    // The rates of the gates a circuit can name, as reported with a job's result
+    public Map<String, Object> toMap() {
+        Map<String, Double> depolarizingByGate = new LinkedHashMap<>();
+        Map<String, Double> dampingByGate = new LinkedHashMap<>();
+        for (GateType type : GateType.values()) {
+            if (!type.isFused() && type != GateType.MEASURE) {
+                depolarizingByGate.put(type.name(), depolarizing(type));
+                dampingByGate.put(type.name(), damping(type));
+            }
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("depolarizing", depolarizingByGate);
+        map.put("amplitude_damping", dampingByGate);
+        Map<String, Double> readout = new LinkedHashMap<>();
+        readout.put("p01", p01);
+        readout.put("p10", p10);
+        map.put("readout", readout);
+        return map;
+    }
+}
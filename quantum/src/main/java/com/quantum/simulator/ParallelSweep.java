@@ -0,0 +1,76 @@
+package com.quantum.simulator;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits a kernel's index range across a {@link ForkJoinPool}. Ranges at or below the
+ * threshold run inline on the calling thread, so small circuits never pay for task handoff.
+ */
+public final class ParallelSweep {
+
+    @FunctionalInterface
+    public interface RangeKernel {
+        void run(int from, int to);
+    }
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public ParallelSweep(ForkJoinPool pool, int threshold) {
+        this.pool = pool;
+        this.threshold = Math.max(1, threshold);
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public void run(int count, RangeKernel kernel) {
+        if (count <= threshold || pool.getParallelism() <= 1) {
+            kernel.run(0, count);
+        } else {
+            pool.invoke(new SweepTask(kernel, 0, count, threshold));
+        }
+    }
+
+    // For items that each cost about `cost` amplitude updates: the threshold is scaled down accordingly
+    public void run(int count, long cost, RangeKernel kernel) {
+        int grain = (int) Math.max(1, threshold / Math.max(1, cost));
+        if (count <= grain || pool.getParallelism() <= 1) {
+            kernel.run(0, count);
+        } else {
+            pool.invoke(new SweepTask(kernel, 0, count, grain));
+        }
+    }
+
+    private static final class SweepTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient RangeKernel kernel;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        SweepTask(RangeKernel kernel, int from, int to, int threshold) {
+            this.kernel = kernel;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                kernel.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SweepTask(kernel, from, mid, threshold), new SweepTask(kernel, mid, to, threshold));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.quantum.simulator;
+
+/**
+ * Quantum Fourier transform of a contiguous register of qubits {@code low .. low + width - 1} (qubit
+ * {@code low} least significant), F[k] = 2^(-width/2) * sum_x e^(+-2*pi*i*x*k / 2^width) v[x], applied
+ * to every column of the state at once as an in-place radix-2 FFT: O(n * 2^n) work instead of the
+ * O(n^2) sweeps of the gate-by-gate circuit.
+ * <p>
+ * Columns (the assignments of all other qubits) are walked in tiles of adjacent basis indices, so the
+ * innermost loop is contiguous in memory. The bit-reversal pass and the low butterfly stages run per
+ * cache-sized block of register values, and only the remaining high stages make a full pass each;
+ * every pass is split across the sweep's fork-join pool.
+ */
+public final class QftKernel {
+
+    private static final int TILE_BITS = 6;
+    private static final int BLOCK_AMPLITUDES = 1 << 12;
+    private static final int CHUNK = 1 << 10;
+
+    private final AmplitudeStorage amps;
+    private final int low;
+    private final int width;
+    private final int registerSize;
+    private final int loMask;
+    private final int tile;
+    private final int tiles;
+    private final int block;
+    private final double scale;
+    private final double[] cos;
+    private final double[] sin;
+
+    public QftKernel(StateVector state, int low, int width, boolean inverse) {
+        if (width < 1 || low < 0 || low + width > state.getQubits()) {
+            throw new IllegalArgumentException("QFT register " + low + ".." + (low + width - 1)
+                    + " does not fit a " + state.getQubits() + "-qubit state");
+        }
+        this.amps = state.storage();
+        this.low = low;
+        this.width = width;
+        this.registerSize = 1 << width;
+        this.loMask = (1 << low) - 1;
+        int columns = state.size() >>> width;
+        // a tile never crosses into the next run of higher qubits, so its columns are adjacent in memory
+        this.tile = Math.min(columns, 1 << Math.min(low, TILE_BITS));
+        this.tiles = columns / tile;
+        this.block = Math.min(registerSize, Math.max(2, BLOCK_AMPLITUDES / tile));
+        this.scale = 1.0 / Math.sqrt(registerSize);
+
+        int half = registerSize >>> 1;
+        this.cos = new double[half];
+        this.sin = new double[half];
+        double sign = inverse ? -1.0 : 1.0;
+        for (int j = 0; j < half; j++) {
+            double angle = 2 * Math.PI * j / registerSize;
+            cos[j] = Math.cos(angle);
+            sin[j] = sign * Math.sin(angle);
+        }
+    }
+
+    public void apply(ParallelSweep sweep) {
+        int reverseChunk = Math.min(registerSize, CHUNK);
+        sweep.run((registerSize / reverseChunk) * tiles, (long) reverseChunk * tile,
+                (from, to) -> reverse(reverseChunk, from, to));
+
+        int blockStages = Integer.numberOfTrailingZeros(block);
+        sweep.run((registerSize / block) * tiles, (long) block * blockStages * tile, this::blockStages);
+
+        for (int size = block << 1; size <= registerSize; size <<= 1) {
+            int stage = size;
+            int group = Math.min(stage >>> 1, CHUNK);
+            sweep.run((registerSize / 2 / group) * tiles, (long) group * tile,
+                    (from, to) -> stage(stage, group, from, to));
+        }
+    }
+
+    // Basis index of register value j in the first column of tile t
+    private int address(int t, int j) {
+        int c = t * tile;
+        return ((c >>> low) << (low + width)) | (j << low) | (c & loMask);
+    }
+
+    // Bit-reversal permutation of the register; each pair is swapped by the unit holding its smaller index
+    private void reverse(int chunk, int from, int to) {
+        for (int u = from; u < to; u++) {
+            int t = u % tiles;
+            int start = (u / tiles) * chunk;
+            for (int j = start; j < start + chunk; j++) {
+                int r = Integer.reverse(j) >>> (32 - width);
+                if (j < r) {
+                    int a = address(t, j);
+                    int b = address(t, r);
+                    for (int i = 0; i < tile; i++) {
+                        double xr = amps.re(a + i), xi = amps.im(a + i);
+                        amps.set(a + i, amps.re(b + i), amps.im(b + i));
+                        amps.set(b + i, xr, xi);
+                    }
+                }
+            }
+        }
+    }
+
+    // All stages up to the block size, plus normalisation, while the block is in cache
+    private void blockStages(int from, int to) {
+        for (int u = from; u < to; u++) {
+            int t = u % tiles;
+            int start = (u / tiles) * block;
+            for (int size = 2; size <= block; size <<= 1) {
+                butterflies(t, start, start + block, size, 0, size >>> 1);
+            }
+            for (int j = start; j < start + block; j++) {
+                int a = address(t, j);
+                for (int i = 0; i < tile; i++) {
+                    amps.set(a + i, amps.re(a + i) * scale, amps.im(a + i) * scale);
+                }
+            }
+        }
+    }
+
+    // One butterfly stage above the block size; a unit covers `group` butterflies of one tile
+    private void stage(int size, int group, int from, int to) {
+        int span = size >>> 1;
+        for (int u = from; u < to; u++) {
+            int t = u % tiles;
+            int first = (u / tiles) * group;
+            int start = (first / span) * size;
+            int p = first % span;
+            butterflies(t, start, start + size, size, p, p + group);
+        }
+    }
+
+    // Butterflies at offsets [pFrom, pTo) of each size-`size` group in register values [start, end)
+    private void butterflies(int t, int start, int end, int size, int pFrom, int pTo) {
+        int span = size >>> 1;
+        int step = registerSize / size;
+        for (int g = start; g < end; g += size) {
+            for (int p = pFrom; p < pTo; p++) {
+                double wr = cos[p * step];
+                double wi = sin[p * step];
+                int a = address(t, g + p);
+                int b = address(t, g + p + span);
+                for (int i = 0; i < tile; i++) {
+                    double yr = amps.re(b + i), yi = amps.im(b + i);
+                    double tr = yr * wr - yi * wi;
+                    double ti = yr * wi + yi * wr;
+                    double xr = amps.re(a + i), xi = amps.im(a + i);
+                    amps.set(b + i, xr - tr, xi - ti);
+                    amps.set(a + i, xr + tr, xi + ti);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.quantum.simulator;
+
+/**
+ * How a circuit's state is held while it runs. AUTO sends Clifford-only circuits to the stabilizer
+ * tableau; anything else starts sparse and moves to the dense vector once enough amplitudes are
+ * non-zero (or a gate needs it), as long as the register fits.
+ */
+public enum Representation {
+    AUTO, DENSE, SPARSE, STABILIZER;
+
+    public static Representation parse(Object value) {
+        if (value == null) {
+            return AUTO;
+        }
+        try {
+            return valueOf(value.toString().trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("representation must be one of auto, dense, sparse or stabilizer, got '" + value + "'");
+        }
+    }
+}
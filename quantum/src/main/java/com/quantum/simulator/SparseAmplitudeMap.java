@@ -0,0 +1,110 @@
+package com.quantum.simulator;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from basis state to complex amplitude, on parallel primitive arrays so
+ * no entry is boxed. Linear probing over a power-of-two table kept at most half full; entries are
+ * never removed individually, the sparse state rebuilds into a cleared map instead.
+ */
+final class SparseAmplitudeMap {
+
+    static final long EMPTY = -1L;
+
+    private long[] keys;
+    private double[] re;
+    private double[] im;
+    private int mask;
+    private int size;
+
+    SparseAmplitudeMap(int expected) {
+        allocate(Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        re = new double[capacity];
+        im = new double[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    long key(int slot) {
+        return keys[slot];
+    }
+
+    double re(int slot) {
+        return re[slot];
+    }
+
+    double im(int slot) {
+        return im[slot];
+    }
+
+    void set(int slot, double r, double i) {
+        re[slot] = r;
+        im[slot] = i;
+    }
+
+    private int home(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    // Slot holding `key`, or -1
+    int find(long key) {
+        for (int slot = home(key); ; slot = (slot + 1) & mask) {
+            long k = keys[slot];
+            if (k == key) {
+                return slot;
+            }
+            if (k == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    void put(long key, double r, double i) {
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        int slot = home(key);
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            size++;
+        }
+        re[slot] = r;
+        im[slot] = i;
+    }
+
+    void clear() {
+        if (size > 0) {
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        }
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        double[] oldRe = re;
+        double[] oldIm = im;
+        allocate(oldKeys.length << 1);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != EMPTY) {
+                put(oldKeys[slot], oldRe[slot], oldIm[slot]);
+            }
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.quantum.simulator;
+
+import com.quantum.sampling.MeasurementSampler;
+import com.quantum.sampling.ShotHistogram;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * n-qubit state holding only its non-zero amplitudes, keyed by basis index, for circuits that stay
+ * close to a few basis states (GHZ, teleportation, arithmetic on basis states) at up to 62 qubits.
+ * A gate rebuilds the state into a second map, dropping amplitudes that cancel; diagonal gates
+ * update in place. Memory and time follow the number of non-zero amplitudes, not 2^n.
+ */
+public final class SparseStateVector {
+
+    public static final int MAX_QUBITS = 62;
+    // |amplitude|^2 below this is treated as exact cancellation
+    private static final double PRUNE = 1e-32;
+
+    private final int qubits;
+    private SparseAmplitudeMap amps = new SparseAmplitudeMap(16);
+    private SparseAmplitudeMap next = new SparseAmplitudeMap(16);
+
+    public SparseStateVector(int qubits) {
+        if (qubits <= 0 || qubits > MAX_QUBITS) {
+            throw new IllegalArgumentException("Sparse state supports 1-" + MAX_QUBITS + " qubits, got " + qubits);
+        }
+        this.qubits = qubits;
+        amps.put(0L, 1.0, 0.0);
+    }
+
+    public int getQubits() {
+        return qubits;
+    }
+
+    public int nonZeros() {
+        return amps.size();
+    }
+
+    // Fraction of the 2^n basis states with a stored amplitude
+    public double fillRatio() {
+        return amps.size() / Math.scalb(1.0, qubits);
+    }
+
+    // Upper bound on the non-zero count after `gate`: each amplitude feeds at most 2 (or 4) outputs
+    public long boundAfter(Gate gate) {
+        int fanOut = switch (gate.getType()) {
+            case MEASURE, SWAP -> 1;
+            case U2 -> 4;
+            case CNOT -> 2;
+            default -> isDiagonal(gate.getMatrix()) ? 1 : 2;
+        };
+        return (long) amps.size() * fanOut;
+    }
+
+    private static boolean isDiagonal(double[] m) {
+        return m != null && m.length == 8 && m[2] == 0 && m[3] == 0 && m[4] == 0 && m[5] == 0;
+    }
+
+    public void apply(Gate gate) {
+        switch (gate.getType()) {
+            case MEASURE -> {
+                // all qubits are measured at the end of the circuit
+            }
+            case CNOT -> applyControlled(gate.qubit(0), gate.qubit(1), gate.getMatrix());
+            case SWAP -> applySwap(gate.qubit(0), gate.qubit(1));
+            case U2 -> applyTwoQubit(gate.qubit(0), gate.qubit(1), gate.getMatrix());
+            case QFT, IQFT -> throw new IllegalArgumentException(gate + " needs the dense representation");
+            default -> applySingle(gate.qubit(0), gate.getMatrix());
+        }
+    }
+
+    public void applySingle(int target, double[] m) {
+        long bit = 1L << target;
+        if (isDiagonal(m)) {
+            for (int slot = 0; slot < amps.capacity(); slot++) {
+                long k = amps.key(slot);
+                if (k != SparseAmplitudeMap.EMPTY) {
+                    int o = (k & bit) == 0 ? 0 : 6;
+                    double xr = amps.re(slot), xi = amps.im(slot);
+                    amps.set(slot, m[o] * xr - m[o + 1] * xi, m[o] * xi + m[o + 1] * xr);
+                }
+            }
+            return;
+        }
+        next.clear();
+        for (int slot = 0; slot < amps.capacity(); slot++) {
+            long k = amps.key(slot);
+            if (k != SparseAmplitudeMap.EMPTY) {
+                pair(k & ~bit, bit, m);
+            }
+        }
+        swapMaps();
+    }
+
+    // Applies m to the target wherever the control bit is set
+    public void applyControlled(int control, int target, double[] m) {
+        long cbit = 1L << control;
+        long tbit = 1L << target;
+        next.clear();
+        for (int slot = 0; slot < amps.capacity(); slot++) {
+            long k = amps.key(slot);
+            if (k == SparseAmplitudeMap.EMPTY) {
+                continue;
+            }
+            if ((k & cbit) == 0) {
+                next.put(k, amps.re(slot), amps.im(slot));
+            } else {
+                pair(k & ~tbit, tbit, m);
+            }
+        }
+        swapMaps();
+    }
+
+    public void applySwap(int a, int b) {
+        long abit = 1L << a;
+        long bbit = 1L << b;
+        next.clear();
+        for (int slot = 0; slot < amps.capacity(); slot++) {
+            long k = amps.key(slot);
+            if (k != SparseAmplitudeMap.EMPTY) {
+                long swapped = ((k & abit) == 0) == ((k & bbit) == 0) ? k : k ^ abit ^ bbit;
+                next.put(swapped, amps.re(slot), amps.im(slot));
+            }
+        }
+        swapMaps();
+    }
+
+    // Dense 4x4 block on (q0, q1); each group of four is written once, by whichever member is seen first
+    public void applyTwoQubit(int q0, int q1, double[] m) {
+        long b0 = 1L << q0;
+        long b1 = 1L << q1;
+        long[] members = new long[4];
+        double[] xr = new double[4];
+        double[] xi = new double[4];
+        next.clear();
+        for (int slot = 0; slot < amps.capacity(); slot++) {
+            long k = amps.key(slot);
+            if (k == SparseAmplitudeMap.EMPTY) {
+                continue;
+            }
+            long base = k & ~(b0 | b1);
+            members[0] = base;
+            members[1] = base | b0;
+            members[2] = base | b1;
+            members[3] = base | b0 | b1;
+            if (next.find(base) >= 0 || next.find(members[1]) >= 0
+                    || next.find(members[2]) >= 0 || next.find(members[3]) >= 0) {
+                // a group whose outputs are all pruned is recomputed, which is harmless
+                continue;
+            }
+            for (int c = 0; c < 4; c++) {
+                int s = amps.find(members[c]);
+                xr[c] = s >= 0 ? amps.re(s) : 0.0;
+                xi[c] = s >= 0 ? amps.im(s) : 0.0;
+            }
+            for (int r = 0; r < 4; r++) {
+                int o = r << 3;
+                double yr = 0.0, yi = 0.0;
+                for (int c = 0; c < 4; c++) {
+                    yr += m[o + 2 * c] * xr[c] - m[o + 2 * c + 1] * xi[c];
+                    yi += m[o + 2 * c] * xi[c] + m[o + 2 * c + 1] * xr[c];
+                }
+                keep(members[r], yr, yi);
+            }
+        }
+        swapMaps();
+    }
+
+    // Writes m applied to the pair (i0, i0 | bit) into `next`, once per pair
+    private void pair(long i0, long bit, double[] m) {
+        long i1 = i0 | bit;
+        if (next.find(i0) >= 0 || next.find(i1) >= 0) {
+            return;
+        }
+        int s0 = amps.find(i0);
+        int s1 = amps.find(i1);
+        double xr = s0 >= 0 ? amps.re(s0) : 0.0, xi = s0 >= 0 ? amps.im(s0) : 0.0;
+        double yr = s1 >= 0 ? amps.re(s1) : 0.0, yi = s1 >= 0 ? amps.im(s1) : 0.0;
+        keep(i0, m[0] * xr - m[1] * xi + m[2] * yr - m[3] * yi, m[0] * xi + m[1] * xr + m[2] * yi + m[3] * yr);
+        keep(i1, m[4] * xr - m[5] * xi + m[6] * yr - m[7] * yi, m[4] * xi + m[5] * xr + m[6] * yi + m[7] * yr);
+    }
+
+    private void keep(long key, double r, double i) {
+        if (r * r + i * i >= PRUNE) {
+            next.put(key, r, i);
+        }
+    }
+
+    private void swapMaps() {
+        SparseAmplitudeMap done = amps;
+        amps = next;
+        next = done;
+    }
+
+    // Writes the amplitudes into a dense state of the same width
+    public void copyTo(StateVector dense) {
+        if (dense.getQubits() != qubits) {
+            throw new IllegalArgumentException("Dense state has " + dense.getQubits() + " qubits, need " + qubits);
+        }
+        dense.storage().clear();
+        for (int slot = 0; slot < amps.capacity(); slot++) {
+            long k = amps.key(slot);
+            if (k != SparseAmplitudeMap.EMPTY) {
+                dense.storage().set((int) k, amps.re(slot), amps.im(slot));
+            }
+        }
+    }
+
+    public ShotHistogram sample(int shots, SplittableGenerator rng, ParallelSweep sweep) {
+        return sample(shots, rng, sweep, MeasurementSampler.NO_PROGRESS);
+    }
+
+    public ShotHistogram sample(int shots, SplittableGenerator rng, ParallelSweep sweep, IntConsumer progress) {
+        long[] states = new long[amps.size()];
+        int n = 0;
+        for (int slot = 0; slot < amps.capacity(); slot++) {
+            if (amps.key(slot) != SparseAmplitudeMap.EMPTY) {
+                states[n++] = amps.key(slot);
+            }
+        }
+        Arrays.sort(states);
+        double[] probabilities = new double[n];
+        for (int i = 0; i < n; i++) {
+            int slot = amps.find(states[i]);
+            probabilities[i] = amps.re(slot) * amps.re(slot) + amps.im(slot) * amps.im(slot);
+        }
+        return MeasurementSampler.sample(states, probabilities, qubits, shots, rng, sweep, progress);
+    }
+}
@@ -0,0 +1,373 @@
+package com.quantum.simulator;
+
+import com.quantum.sampling.MeasurementSampler;
+import com.quantum.sampling.ShotHistogram;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * Aaronson-Gottesman stabilizer tableau for Clifford circuits (H, S, X, Y, Z, CNOT, SWAP): n
+ * stabilizer generators, each an X row and a Z row of bits packed into longs plus a sign. A gate
+ * costs O(n) and the state O(n^2) bits, so thousands of qubits are cheap. Measurements are all
+ * terminal here, so the destabilizers that speed up mid-circuit measurement are not kept.
+ * <p>
+ * Measuring every qubit of a stabilizer state gives outcomes uniform over an affine space: the
+ * GF(2) span of the stabilizers' X parts, offset by any solution of the parity constraints the
+ * Z-only stabilizers impose. Gaussian elimination on the generators finds both, after which each
+ * shot is just k random bits, for k the dimension of that span.
+ */
+public final class StabilizerTableau {
+
+    public static final int MAX_QUBITS = 16384;
+    // shots per generator split when the outcome space is too large to histogram
+    private static final int WIDE_CHUNK_SHOTS = 1 << 10;
+
+    private static final Set<GateType> CLIFFORD = EnumSet.of(GateType.H, GateType.S, GateType.X, GateType.Y,
+            GateType.Z, GateType.CNOT, GateType.SWAP, GateType.MEASURE);
+
+    private final int qubits;
+    private final int words;
+    // generator r occupies [r * words, (r + 1) * words)
+    private final long[] x;
+    private final long[] z;
+    private final boolean[] sign;
+
+    public StabilizerTableau(int qubits) {
+        if (qubits <= 0 || qubits > MAX_QUBITS) {
+            throw new IllegalArgumentException("Stabilizer simulation supports 1-" + MAX_QUBITS + " qubits, got " + qubits);
+        }
+        this.qubits = qubits;
+        this.words = (qubits + 63) >>> 6;
+        this.x = new long[qubits * words];
+        this.z = new long[qubits * words];
+        this.sign = new boolean[qubits];
+        // |0...0> is stabilized by Z on each qubit
+        for (int q = 0; q < qubits; q++) {
+            z[q * words + (q >>> 6)] |= 1L << q;
+        }
+    }
+
+    public static boolean isClifford(List<Gate> gates) {
+        for (Gate gate : gates) {
+            if (!CLIFFORD.contains(gate.getType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getQubits() {
+        return qubits;
+    }
+
+    public void apply(Gate gate) {
+        switch (gate.getType()) {
+            case MEASURE -> {
+                // all qubits are measured at the end of the circuit
+            }
+            case H -> hadamard(gate.qubit(0));
+            case S -> phase(gate.qubit(0));
+            case X -> flipSigns(gate.qubit(0), false, true);
+            case Z -> flipSigns(gate.qubit(0), true, false);
+            case Y -> flipSigns(gate.qubit(0), true, true);
+            case CNOT -> cnot(gate.qubit(0), gate.qubit(1));
+            case SWAP -> swap(gate.qubit(0), gate.qubit(1));
+            default -> throw new IllegalArgumentException(gate + " is not a Clifford gate");
+        }
+    }
+
+    private void hadamard(int q) {
+        int w = q >>> 6;
+        long bit = 1L << q;
+        for (int r = 0; r < qubits; r++) {
+            int i = r * words + w;
+            long xb = x[i] & bit, zb = z[i] & bit;
+            sign[r] ^= xb != 0 && zb != 0;
+            x[i] = (x[i] & ~bit) | zb;
+            z[i] = (z[i] & ~bit) | xb;
+        }
+    }
+
+    private void phase(int q) {
+        int w = q >>> 6;
+        long bit = 1L << q;
+        for (int r = 0; r < qubits; r++) {
+            int i = r * words + w;
+            long xb = x[i] & bit;
+            sign[r] ^= xb != 0 && (z[i] & bit) != 0;
+            z[i] ^= xb;
+        }
+    }
+
+    // Paulis only change signs: X anticommutes with Z parts, Z with X parts, Y with either
+    private void flipSigns(int q, boolean onX, boolean onZ) {
+        int w = q >>> 6;
+        long bit = 1L << q;
+        for (int r = 0; r < qubits; r++) {
+            int i = r * words + w;
+            boolean anticommutes = (onX && (x[i] & bit) != 0) ^ (onZ && (z[i] & bit) != 0);
+            sign[r] ^= anticommutes;
+        }
+    }
+
+    private void cnot(int control, int target) {
+        int wc = control >>> 6, wt = target >>> 6;
+        long cbit = 1L << control, tbit = 1L << target;
+        for (int r = 0; r < qubits; r++) {
+            int ic = r * words + wc, it = r * words + wt;
+            boolean xc = (x[ic] & cbit) != 0, zc = (z[ic] & cbit) != 0;
+            boolean xt = (x[it] & tbit) != 0, zt = (z[it] & tbit) != 0;
+            sign[r] ^= xc && zt && (xt == zc);
+            if (xc) {
+                x[it] ^= tbit;
+            }
+            if (zt) {
+                z[ic] ^= cbit;
+            }
+        }
+    }
+
+    private void swap(int a, int b) {
+        for (int r = 0; r < qubits; r++) {
+            swapBits(x, r * words, a, b);
+            swapBits(z, r * words, a, b);
+        }
+    }
+
+    private static void swapBits(long[] bits, int row, int a, int b) {
+        int ia = row + (a >>> 6), ib = row + (b >>> 6);
+        boolean va = (bits[ia] & (1L << a)) != 0;
+        boolean vb = (bits[ib] & (1L << b)) != 0;
+        if (va != vb) {
+            bits[ia] ^= 1L << a;
+            bits[ib] ^= 1L << b;
+        }
+    }
+
+    // Row h := row i * row h, tracking the sign through the i-power of each single-qubit product
+    private void rowsum(int h, int i) {
+        int ho = h * words, io = i * words;
+        int phase = (sign[h] ? 2 : 0) + (sign[i] ? 2 : 0);
+        for (int w = 0; w < words; w++) {
+            long x1 = x[io + w], z1 = z[io + w], x2 = x[ho + w], z2 = z[ho + w];
+            long y1 = x1 & z1, xOnly1 = x1 & ~z1, zOnly1 = z1 & ~x1;
+            long y2 = x2 & z2, xOnly2 = x2 & ~z2, zOnly2 = z2 & ~x2;
+            long plus = (y1 & zOnly2) | (xOnly1 & y2) | (zOnly1 & xOnly2);
+            long minus = (y1 & xOnly2) | (xOnly1 & zOnly2) | (zOnly1 & y2);
+            phase += Long.bitCount(plus) - Long.bitCount(minus);
+            x[ho + w] = x2 ^ x1;
+            z[ho + w] = z2 ^ z1;
+        }
+        sign[h] = (phase & 3) == 2;
+    }
+
+    // Lowest qubit >= from whose bit is set in generator `row`, or -1
+    private int nextSetBit(long[] bits, int row, int from) {
+        int w = from >>> 6;
+        if (w >= words) {
+            return -1;
+        }
+        long word = bits[row * words + w] & (-1L << from);
+        while (word == 0) {
+            if (++w == words) {
+                return -1;
+            }
+            word = bits[row * words + w];
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    /** Measures every qubit in the computational basis; the tableau is consumed. */
+    public OutcomeSpace measureAll() {
+        // echelon form of the X parts, one generator at a time: a generator is reduced by the pivots
+        // at its set bits until its lowest remaining bit is new (it becomes that qubit's pivot) or
+        // nothing is left (it is Z-only). Work follows the set bits, so sparse stabilizers stay cheap.
+        int[] xPivot = new int[qubits];
+        Arrays.fill(xPivot, -1);
+        long[][] basis = new long[qubits][];
+        int rank = 0;
+        int[] zOnly = new int[qubits];
+        int zCount = 0;
+        for (int r = 0; r < qubits; r++) {
+            int q = nextSetBit(x, r, 0);
+            while (q >= 0 && xPivot[q] >= 0) {
+                rowsum(r, xPivot[q]);
+                q = nextSetBit(x, r, q + 1);
+            }
+            if (q >= 0) {
+                xPivot[q] = r;
+                basis[rank++] = Arrays.copyOfRange(x, r * words, (r + 1) * words);
+            } else {
+                zOnly[zCount++] = r;
+            }
+        }
+
+        // (-1)^sign Z^c fixes exactly the outcomes with c . x = sign (mod 2); same echelon form on those
+        int[] zPivot = new int[qubits];
+        Arrays.fill(zPivot, -1);
+        for (int i = 0; i < zCount; i++) {
+            int r = zOnly[i];
+            int q = nextSetBit(z, r, 0);
+            while (q >= 0 && zPivot[q] >= 0) {
+                int p = zPivot[q];
+                for (int w = 0; w < words; w++) {
+                    z[r * words + w] ^= z[p * words + w];
+                }
+                sign[r] ^= sign[p];
+                q = nextSetBit(z, r, q + 1);
+            }
+            if (q >= 0) {
+                zPivot[q] = r;
+            }
+        }
+        // back-substitution from the highest pivot, with every free qubit at 0
+        long[] reference = new long[words];
+        for (int q = qubits - 1; q >= 0; q--) {
+            int r = zPivot[q];
+            if (r < 0) {
+                continue;
+            }
+            int parity = sign[r] ? 1 : 0;
+            for (int w = 0; w < words; w++) {
+                parity += Long.bitCount(z[r * words + w] & reference[w]);
+            }
+            if ((parity & 1) != 0) {
+                reference[q >>> 6] |= 1L << q;
+            }
+        }
+        return new OutcomeSpace(qubits, reference, Arrays.copyOf(basis, rank));
+    }
+
+    /** Measurement outcomes of a stabilizer state: reference XOR any combination of the basis vectors. */
+    public static final class OutcomeSpace {
+        private final int qubits;
+        private final long[] reference;
+        private final long[][] basis;
+
+        OutcomeSpace(int qubits, long[] reference, long[][] basis) {
+            this.qubits = qubits;
+            this.reference = reference;
+            this.basis = basis;
+        }
+
+        // Number of random bits per shot; 2^dimension equally likely outcomes
+        public int dimension() {
+            return basis.length;
+        }
+
+        // Outcomes as a histogram; registers of up to 62 qubits
+        public ShotHistogram sample(int shots, SplittableGenerator rng, ParallelSweep sweep) {
+            if (qubits > 62) {
+                throw new IllegalArgumentException("Histograms hold at most 62 qubits, use sampleBitstrings");
+            }
+            ShotHistogram choices = sampleChoices(shots, rng, sweep);
+            long[] states = new long[choices.distinctStates()];
+            int[] counts = new int[states.length];
+            Integer[] order = new Integer[states.length];
+            for (int i = 0; i < states.length; i++) {
+                states[i] = outcome(choices.state(i))[0];
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(states[a], states[b]));
+            long[] sortedStates = new long[states.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedStates[i] = states[order[i]];
+                counts[i] = choices.count(order[i]);
+            }
+            return new ShotHistogram(qubits, sortedStates, counts);
+        }
+
+        // Outcomes keyed by bitstring (most significant qubit first), for registers of any width
+        public Map<String, Integer> sampleBitstrings(int shots, SplittableGenerator rng, ParallelSweep sweep) {
+            Map<String, Integer> counts = new TreeMap<>();
+            if (basis.length <= 62) {
+                ShotHistogram choices = sampleChoices(shots, rng, sweep);
+                for (int i = 0; i < choices.distinctStates(); i++) {
+                    counts.put(toBitString(outcome(choices.state(i))), choices.count(i));
+                }
+                return counts;
+            }
+            // nearly every shot is a distinct bitstring, so the result holds about shots x qubits characters
+            long outputBits = (long) shots * qubits;
+            long limit = Runtime.getRuntime().maxMemory() / 4;
+            if (outputBits > limit) {
+                throw new IllegalArgumentException(shots + " shots x " + qubits + " qubits = " + outputBits
+                        + " output bits exceeds the sampling limit of " + limit + " bits (a quarter of the maximum heap)");
+            }
+            // chunks draw from their own splits of the job generator, so the counts do not depend on the core count
+            int chunks = (shots + WIDE_CHUNK_SHOTS - 1) / WIDE_CHUNK_SHOTS;
+            SplittableGenerator[] streams = new SplittableGenerator[chunks];
+            for (int c = 0; c < chunks; c++) {
+                streams[c] = rng.split();
+            }
+            List<Map<String, Integer>> hits = new ArrayList<>(Collections.nCopies(chunks, null));
+            sweep.run(chunks, (long) WIDE_CHUNK_SHOTS * basis.length * reference.length, (first, last) -> {
+                long[] bits = new long[reference.length];
+                for (int c = first; c < last; c++) {
+                    hits.set(c, sampleWide(streams[c], c * WIDE_CHUNK_SHOTS, Math.min(shots, (c + 1) * WIDE_CHUNK_SHOTS), bits));
+                }
+            });
+            for (Map<String, Integer> chunk : hits) {
+                chunk.forEach((bitstring, n) -> counts.merge(bitstring, n, Integer::sum));
+            }
+            return counts;
+        }
+
+        // Shots [from, to): each XORs the basis vectors its random bits select into the reference
+        private Map<String, Integer> sampleWide(SplittableGenerator rng, int from, int to, long[] bits) {
+            Map<String, Integer> hits = new HashMap<>();
+            for (int s = from; s < to; s++) {
+                System.arraycopy(reference, 0, bits, 0, bits.length);
+                long random = 0;
+                for (int j = 0; j < basis.length; j++) {
+                    if ((j & 63) == 0) {
+                        random = rng.nextLong();
+                    }
+                    if ((random >>> j & 1) != 0) {
+                        long[] vector = basis[j];
+                        for (int k = 0; k < bits.length; k++) {
+                            bits[k] ^= vector[k];
+                        }
+                    }
+                }
+                hits.merge(toBitString(bits), 1, Integer::sum);
+            }
+            return hits;
+        }
+
+        // Bit j of each draw selects basis vector j
+        private ShotHistogram sampleChoices(int shots, SplittableGenerator rng, ParallelSweep sweep) {
+            long mask = (1L << basis.length) - 1;
+            return MeasurementSampler.sample(basis.length, shots, rng, sweep, r -> r.nextLong() & mask);
+        }
+
+        private long[] outcome(long choice) {
+            long[] bits = reference.clone();
+            for (int j = 0; j < basis.length; j++) {
+                if ((choice >>> j & 1) != 0) {
+                    for (int k = 0; k < bits.length; k++) {
+                        bits[k] ^= basis[j][k];
+                    }
+                }
+            }
+            return bits;
+        }
+
+        private String toBitString(long[] bits) {
+            char[] chars = new char[qubits];
+            for (int q = 0; q < qubits; q++) {
+                chars[qubits - 1 - q] = (bits[q >>> 6] & (1L << q)) != 0 ? '1' : '0';
+            }
+            return new String(chars);
+        }
+    }
+}
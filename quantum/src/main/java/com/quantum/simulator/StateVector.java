@@ -0,0 +1,269 @@
+package com.quantum.simulator;
+
+import com.quantum.sampling.ProbabilityDistribution;
+
+/**
+ * Dense n-qubit state over an {@link AmplitudeStorage} (heap arrays or off-heap buffers).
+ * Basis index bit {@code q} is qubit {@code q}; bitstrings are printed most significant qubit first.
+ * Kernels work on a range of "pair indices" so callers can split a sweep into chunks.
+ * Heap states use the {@link VectorKernels} where {@link VectorSupport} allows it and the gate's
+ * lowest qubit is wide enough to fill a vector; everything else runs the scalar loops.
+ */
+public final class StateVector implements ProbabilityDistribution, AutoCloseable {
+
+    public static final int MAX_QUBITS = 30;
+
+    private final int qubits;
+    private final int size;
+    private final AmplitudeStorage amps;
+    // heap arrays handed to the vector kernels; null when this state only uses the scalar loops
+    private final double[] vre;
+    private final double[] vim;
+
+    public StateVector(int qubits) {
+        this(qubits, new HeapAmplitudeStorage(checkedSize(qubits)));
+    }
+
+    public StateVector(int qubits, AmplitudeStorage storage) {
+        this(qubits, storage, true);
+    }
+
+    public StateVector(int qubits, AmplitudeStorage storage, boolean vectorize) {
+        if (storage.size() != checkedSize(qubits)) {
+            throw new IllegalArgumentException("Storage holds " + storage.size() + " amplitudes, need 2^" + qubits);
+        }
+        this.qubits = qubits;
+        this.size = storage.size();
+        this.amps = storage;
+        boolean vector = vectorize && VectorSupport.isAvailable() && storage instanceof HeapAmplitudeStorage;
+        this.vre = vector ? ((HeapAmplitudeStorage) storage).real() : null;
+        this.vim = vector ? ((HeapAmplitudeStorage) storage).imag() : null;
+        this.amps.set(0, 1.0, 0.0);
+    }
+
+    static int checkedSize(int qubits) {
+        if (qubits <= 0 || qubits > MAX_QUBITS) {
+            throw new IllegalArgumentException("State vector supports 1-" + MAX_QUBITS + " qubits, got " + qubits);
+        }
+        return 1 << qubits;
+    }
+
+    public int getQubits() {
+        return qubits;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public AmplitudeStorage storage() {
+        return amps;
+    }
+
+    public void reset() {
+        amps.clear();
+        amps.set(0, 1.0, 0.0);
+    }
+
+    @Override
+    public void close() {
+        amps.close();
+    }
+
+    public boolean isVectorized() {
+        return vre != null;
+    }
+
+    // Whether a gate whose lowest qubit is `qubit` can take the vector path
+    private boolean vectorFor(int qubit) {
+        return vre != null && qubit >= VectorKernels.MIN_QUBIT;
+    }
+
+    // Spreads k around a zero bit at position `bit`: the lower index of the pair touched by a gate on that qubit
+    static int insertZeroBit(int k, int bit) {
+        int low = (1 << bit) - 1;
+        return ((k & ~low) << 1) | (k & low);
+    }
+
+    public int pairCount() {
+        return size >>> 1;
+    }
+
+    public int quadCount() {
+        return size >>> 2;
+    }
+
+    public void applySingle(int target, double[] m, int from, int to) {
+        if (m[2] == 0 && m[3] == 0 && m[4] == 0 && m[5] == 0) {
+            applyDiagonal(target, m[0], m[1], m[6], m[7], from, to);
+            return;
+        }
+        if (vectorFor(target)) {
+            VectorKernels.applySingle(vre, vim, target, m, from, to);
+            return;
+        }
+        int bit = 1 << target;
+        double ar = m[0], ai = m[1], br = m[2], bi = m[3];
+        double cr = m[4], ci = m[5], dr = m[6], di = m[7];
+        for (int k = from; k < to; k++) {
+            int i0 = insertZeroBit(k, target);
+            int i1 = i0 | bit;
+            double xr = amps.re(i0), xi = amps.im(i0);
+            double yr = amps.re(i1), yi = amps.im(i1);
+            amps.set(i0, ar * xr - ai * xi + br * yr - bi * yi, ar * xi + ai * xr + br * yi + bi * yr);
+            amps.set(i1, cr * xr - ci * xi + dr * yr - di * yi, cr * xi + ci * xr + dr * yi + di * yr);
+        }
+    }
+
+    private void applyDiagonal(int target, double ar, double ai, double dr, double di, int from, int to) {
+        int bit = 1 << target;
+        boolean identityTop = ar == 1.0 && ai == 0.0;
+        if (vectorFor(target)) {
+            VectorKernels.applyDiagonal(vre, vim, target, ar, ai, dr, di, identityTop, from, to);
+            return;
+        }
+        for (int k = from; k < to; k++) {
+            int i0 = insertZeroBit(k, target);
+            int i1 = i0 | bit;
+            if (!identityTop) {
+                double xr = amps.re(i0), xi = amps.im(i0);
+                amps.set(i0, ar * xr - ai * xi, ar * xi + ai * xr);
+            }
+            double yr = amps.re(i1), yi = amps.im(i1);
+            amps.set(i1, dr * yr - di * yi, dr * yi + di * yr);
+        }
+    }
+
+    // Applies m to the target wherever the control bit is set; k ranges over quadCount()
+    public void applyControlled(int control, int target, double[] m, int from, int to) {
+        int lo = Math.min(control, target);
+        int hi = Math.max(control, target);
+        if (vectorFor(lo)) {
+            VectorKernels.applyControlled(vre, vim, control, target, m, from, to);
+            return;
+        }
+        int cbit = 1 << control;
+        int tbit = 1 << target;
+        double ar = m[0], ai = m[1], br = m[2], bi = m[3];
+        double cr = m[4], ci = m[5], dr = m[6], di = m[7];
+        for (int k = from; k < to; k++) {
+            int i0 = insertZeroBit(insertZeroBit(k, lo), hi) | cbit;
+            int i1 = i0 | tbit;
+            double xr = amps.re(i0), xi = amps.im(i0);
+            double yr = amps.re(i1), yi = amps.im(i1);
+            amps.set(i0, ar * xr - ai * xi + br * yr - bi * yi, ar * xi + ai * xr + br * yi + bi * yr);
+            amps.set(i1, cr * xr - ci * xi + dr * yr - di * yi, cr * xi + ci * xr + dr * yi + di * yr);
+        }
+    }
+
+    // Exchanges |..0..1..> and |..1..0..>; k ranges over quadCount()
+    public void applySwap(int a, int b, int from, int to) {
+        int lo = Math.min(a, b);
+        int hi = Math.max(a, b);
+        int abit = 1 << a;
+        int bbit = 1 << b;
+        for (int k = from; k < to; k++) {
+            int base = insertZeroBit(insertZeroBit(k, lo), hi);
+            int i = base | abit;
+            int j = base | bbit;
+            double tr = amps.re(i), ti = amps.im(i);
+            amps.set(i, amps.re(j), amps.im(j));
+            amps.set(j, tr, ti);
+        }
+    }
+
+    // Applies a dense 4x4 block; local index is (bit q0) + 2 * (bit q1); k ranges over quadCount()
+    public void applyTwoQubit(int q0, int q1, double[] m, int from, int to) {
+        int lo = Math.min(q0, q1);
+        int hi = Math.max(q0, q1);
+        int b0 = 1 << q0;
+        int b1 = 1 << q1;
+        for (int k = from; k < to; k++) {
+            int i0 = insertZeroBit(insertZeroBit(k, lo), hi);
+            int i1 = i0 | b0;
+            int i2 = i0 | b1;
+            int i3 = i1 | b1;
+            double x0r = amps.re(i0), x0i = amps.im(i0);
+            double x1r = amps.re(i1), x1i = amps.im(i1);
+            double x2r = amps.re(i2), x2i = amps.im(i2);
+            double x3r = amps.re(i3), x3i = amps.im(i3);
+            for (int r = 0; r < 4; r++) {
+                int o = r << 3;
+                double yr = m[o] * x0r - m[o + 1] * x0i + m[o + 2] * x1r - m[o + 3] * x1i
+                        + m[o + 4] * x2r - m[o + 5] * x2i + m[o + 6] * x3r - m[o + 7] * x3i;
+                double yi = m[o] * x0i + m[o + 1] * x0r + m[o + 2] * x1i + m[o + 3] * x1r
+                        + m[o + 4] * x2i + m[o + 5] * x2r + m[o + 6] * x3i + m[o + 7] * x3r;
+                int target = r == 0 ? i0 : r == 1 ? i1 : r == 2 ? i2 : i3;
+                amps.set(target, yr, yi);
+            }
+        }
+    }
+
+    public void fill(double re, double im, int from, int to) {
+        for (int i = from; i < to; i++) {
+            amps.set(i, re, im);
+        }
+    }
+
+    public void copyFrom(StateVector source, int from, int to) {
+        for (int i = from; i < to; i++) {
+            amps.set(i, source.amps.re(i), source.amps.im(i));
+        }
+    }
+
+    // Grover oracle on one basis state: |x> -> -|x>
+    public void phaseFlip(int index) {
+        amps.set(index, -amps.re(index), -amps.im(index));
+    }
+
+    // Grover diffuser 2|s><s| - I: each amplitude a becomes 2 * mean - a
+    public void reflectAboutMean(double meanRe, double meanIm, int from, int to) {
+        for (int i = from; i < to; i++) {
+            amps.set(i, 2 * meanRe - amps.re(i), 2 * meanIm - amps.im(i));
+        }
+    }
+
+    // Probability of reading `qubit` as 1, summed over the runs of 2^qubit indices that have the bit set
+    public double excitedProbability(int qubit) {
+        int bit = 1 << qubit;
+        int size = size();
+        double p = 0.0;
+        for (int base = bit; base < size; base += bit << 1) {
+            if (vre != null) {
+                for (int i = base, end = base + bit; i < end; i++) {
+                    p += vre[i] * vre[i] + vim[i] * vim[i];
+                }
+            } else {
+                for (int i = base, end = base + bit; i < end; i++) {
+                    p += probability(i);
+                }
+            }
+        }
+        return p;
+    }
+
+    @Override
+    public double probability(int index) {
+        double r = amps.re(index);
+        double i = amps.im(index);
+        return r * r + i * i;
+    }
+
+    @Override
+    public void probabilities(double[] out, int from, int to) {
+        if (vre != null) {
+            VectorKernels.probabilities(vre, vim, out, from, to);
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            out[i] = probability(i);
+        }
+    }
+
+    public double[] probabilities() {
+        double[] p = new double[size];
+        probabilities(p, 0, size);
+        return p;
+    }
+}
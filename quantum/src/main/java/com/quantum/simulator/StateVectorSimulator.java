@@ -0,0 +1,242 @@
+package com.quantum.simulator;
+
+import com.quantum.model.QuantumCircuit;
+import com.quantum.sampling.MeasurementSampler;
+import com.quantum.sampling.ShotHistogram;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+@Component
+public class StateVectorSimulator {
+
+    // noisy runs without a "trajectories" parameter; never more than one per shot
+    public static final int DEFAULT_TRAJECTORIES = 256;
+
+    private final int maxQubits;
+    private final ForkJoinPool pool;
+    private final ParallelSweep sweep;
+    // for gates inside a trajectory, which already has a worker to itself
+    private final ParallelSweep inline;
+    private final AmplitudeStorageFactory storageFactory;
+    private final double sparseFillRatio;
+    private final int sparseMaxAmplitudes;
+    private final long stateMemoryBudget;
+
+    // gate passes over a state and the amplitudes they touched, for throughput metrics
+    private final LongAdder sweeps = new LongAdder();
+    private final LongAdder amplitudesSwept = new LongAdder();
+
+    public StateVectorSimulator(AmplitudeStorageFactory storageFactory,
+                                @Value("${quantum.simulator.max-qubits:26}") int maxQubits,
+                                @Value("${quantum.simulator.parallelism:0}") int parallelism,
+                                @Value("${quantum.simulator.parallel-threshold:16384}") int parallelThreshold,
+                                @Value("${quantum.simulator.sparse-fill-ratio:0.0625}") double sparseFillRatio,
+                                @Value("${quantum.simulator.sparse-max-amplitudes:4194304}") int sparseMaxAmplitudes,
+                                @Value("${quantum.simulator.state-memory-budget-mb:0}") long stateMemoryBudgetMb) {
+        this.storageFactory = storageFactory;
+        this.stateMemoryBudget = stateMemoryBudgetMb > 0 ? stateMemoryBudgetMb << 20 : Runtime.getRuntime().maxMemory() / 2;
+        this.sparseFillRatio = sparseFillRatio;
+        this.sparseMaxAmplitudes = sparseMaxAmplitudes;
+        this.maxQubits = Math.min(maxQubits, StateVector.MAX_QUBITS);
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads);
+        this.sweep = new ParallelSweep(pool, parallelThreshold);
+        this.inline = new ParallelSweep(pool, Integer.MAX_VALUE);
+    }
+
+    public ParallelSweep getSweep() {
+        return sweep;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public int getMaxQubits() {
+        return maxQubits;
+    }
+
+    /**
+     * How many {@code qubits}-qubit dense states one fan-out (batch variants, noise trajectories) may
+     * hold at once: one per pool worker, as long as they fit in the state memory budget, and never
+     * fewer than one.
+     */
+    public int concurrentStates(int qubits) {
+        long bytes = 16L << Math.min(qubits, StateVector.MAX_QUBITS);
+        return (int) Math.max(1, Math.min(pool.getParallelism(), stateMemoryBudget / bytes));
+    }
+
+    // Runs task(i) for every i in [0, count) on the simulator pool, at most `concurrency` at a time;
+    // the tasks' own gate sweeps join the same pool
+    public void forEachConcurrently(int count, int concurrency, IntConsumer task) {
+        AtomicInteger next = new AtomicInteger();
+        sweep.run(Math.max(1, Math.min(count, concurrency)), Long.MAX_VALUE, (from, to) -> {
+            for (int w = from; w < to; w++) {
+                for (int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()) {
+                    task.accept(i);
+                }
+            }
+        });
+    }
+
+    public long getSweeps() {
+        return sweeps.sum();
+    }
+
+    public long getAmplitudesSwept() {
+        return amplitudesSwept.sum();
+    }
+
+    public StateVector run(QuantumCircuit circuit) {
+        return run(CircuitParser.parse(circuit), circuit.getQubits());
+    }
+
+    public StateVector run(CompiledCircuit circuit) {
+        return run(circuit.getGates(), circuit.getQubits());
+    }
+
+    public StateVector run(List<Gate> gates, int qubits) {
+        StateVector state = newState(qubits);
+        try {
+            execute(gates, state);
+        } catch (RuntimeException e) {
+            state.close();
+            throw e;
+        }
+        return state;
+    }
+
+    /**
+     * Runs the circuit under {@code noise} as {@code trajectories} independent noisy executions,
+     * at most one per shot, and pools their shots into one histogram. Dense only: the gates are the
+     * parsed circuit, not the compiled one, because fused gates no longer carry their own error rates.
+     */
+    public Measurement measureNoisy(List<Gate> gates, int qubits, NoiseModel noise, int shots, int trajectories,
+                                    SplittableGenerator rng, ExecutionMonitor monitor) {
+        if (qubits > maxQubits) {
+            throw new IllegalArgumentException("Circuit needs " + qubits + " qubits, simulator limit is " + maxQubits);
+        }
+        int runs = Math.max(1, Math.min(trajectories, shots));
+        long start = System.nanoTime();
+        ShotHistogram counts = new TrajectorySimulation(this, inline, gates, qubits, noise, monitor)
+                .run(shots, runs, rng, sweep);
+        // sampling is interleaved with the trajectories, so it is all counted as simulation
+        return new Measurement(counts, Representation.DENSE, 1L << qubits, System.nanoTime() - start, 0L);
+    }
+
+    // Runs the circuit and measures every qubit `shots` times
+    public Measurement measure(CompiledCircuit circuit, Representation representation, int shots,
+                               SplittableGenerator rng) {
+        return measure(circuit, representation, shots, rng, ExecutionMonitor.NONE);
+    }
+
+    public Measurement measure(CompiledCircuit circuit, Representation representation, int shots,
+                               SplittableGenerator rng, ExecutionMonitor monitor) {
+        int qubits = circuit.getQubits();
+        if (representation == Representation.STABILIZER) {
+            throw new IllegalArgumentException("Compiled circuits cannot run on the stabilizer tableau");
+        }
+        long start = System.nanoTime();
+        List<Gate> gates = circuit.getGates();
+        if (representation == Representation.DENSE) {
+            try (StateVector state = newState(qubits)) {
+                execute(gates, 0, state, monitor);
+                return sampleDense(state, shots, rng, start, monitor);
+            }
+        }
+        boolean mayDensify = representation == Representation.AUTO && qubits <= maxQubits;
+        SparseStateVector sparse = new SparseStateVector(qubits);
+        for (int g = 0; g < gates.size(); g++) {
+            Gate gate = gates.get(g);
+            if (mayDensify && (gate.getType().isRegister() || sparse.fillRatio() > sparseFillRatio)) {
+                try (StateVector state = newState(qubits)) {
+                    sparse.copyTo(state);
+                    execute(gates, g, state, monitor);
+                    return sampleDense(state, shots, rng, start, monitor);
+                }
+            }
+            // checked before the gate runs, so an oversized state is never allocated
+            if (sparse.boundAfter(gate) > sparseMaxAmplitudes) {
+                throw new IllegalArgumentException("Circuit may reach " + sparse.boundAfter(gate) + " non-zero amplitudes at '"
+                        + gate + "', above the sparse limit of " + sparseMaxAmplitudes
+                        + (qubits > maxQubits ? " and too many qubits for the dense simulator" : ""));
+            }
+            monitor.checkCancelled();
+            sparse.apply(gate);
+            sweeps.increment();
+            amplitudesSwept.add(sparse.nonZeros());
+            monitor.simulated(g + 1, gates.size());
+        }
+        long sampleStart = System.nanoTime();
+        ShotHistogram counts = sparse.sample(shots, rng, sweep, monitor.shotCounter(shots));
+        return new Measurement(counts, Representation.SPARSE, sparse.nonZeros(), sampleStart - start,
+                System.nanoTime() - sampleStart);
+    }
+
+    private Measurement sampleDense(StateVector state, int shots, SplittableGenerator rng, long start,
+                                    ExecutionMonitor monitor) {
+        long sampleStart = System.nanoTime();
+        ShotHistogram counts = MeasurementSampler.sample(state, state.getQubits(), shots, rng, sweep,
+                monitor.shotCounter(shots));
+        return new Measurement(counts, Representation.DENSE, state.size(), sampleStart - start,
+                System.nanoTime() - sampleStart);
+    }
+
+    // |0...0> in storage chosen for the register size; the caller closes it
+    public StateVector newState(int qubits) {
+        if (qubits > maxQubits) {
+            throw new IllegalArgumentException("Circuit needs " + qubits + " qubits, simulator limit is " + maxQubits);
+        }
+        return storageFactory.newState(qubits);
+    }
+
+    public void execute(List<Gate> gates, StateVector state) {
+        for (Gate gate : gates) {
+            apply(gate, state);
+        }
+    }
+
+    // Applies gates[from..] and reports each one against the whole circuit
+    private void execute(List<Gate> gates, int from, StateVector state, ExecutionMonitor monitor) {
+        for (int g = from; g < gates.size(); g++) {
+            monitor.checkCancelled();
+            apply(gates.get(g), state);
+            monitor.simulated(g + 1, gates.size());
+        }
+    }
+
+    public void apply(Gate gate, StateVector state) {
+        apply(gate, state, sweep);
+    }
+
+    void apply(Gate gate, StateVector state, ParallelSweep sweep) {
+        if (gate.getType() != GateType.MEASURE) {
+            sweeps.increment();
+            amplitudesSwept.add(state.size());
+        }
+        switch (gate.getType()) {
+            case MEASURE -> {
+                // all qubits are measured at the end of the circuit
+            }
+            case CNOT -> sweep.run(state.quadCount(),
+                    (from, to) -> state.applyControlled(gate.qubit(0), gate.qubit(1), gate.getMatrix(), from, to));
+            case SWAP -> sweep.run(state.quadCount(),
+                    (from, to) -> state.applySwap(gate.qubit(0), gate.qubit(1), from, to));
+            case QFT, IQFT -> new QftKernel(state, gate.qubit(0), gate.getQubits().length,
+                    gate.getType() == GateType.IQFT).apply(sweep);
+            case U2 -> sweep.run(state.quadCount(),
+                    (from, to) -> state.applyTwoQubit(gate.qubit(0), gate.qubit(1), gate.getMatrix(), from, to));
+            default -> sweep.run(state.pairCount(),
+                    (from, to) -> state.applySingle(gate.qubit(0), gate.getMatrix(), from, to));
+        }
+    }
+}
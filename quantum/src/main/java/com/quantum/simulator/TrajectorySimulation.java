@@ -0,0 +1,239 @@
+package com.quantum.simulator;
+
+import com.quantum.sampling.ShotHistogram;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * Noisy circuits by quantum trajectories: each trajectory evolves one pure state through the
+ * circuit, drawing its errors at random after every gate, and is measured for its share of the
+ * shots. Averaged over trajectories this gives the density-matrix statistics in 2^n memory
+ * instead of 4^n.
+ * <p>
+ * Trajectories are spread over the simulator's pool with one state vector per worker, reset
+ * between trajectories, and gates run inline on that worker. The number of workers is capped by
+ * how many states fit in the simulator's memory budget; when only one fits, trajectories run one
+ * after another and each gate is swept over the pool instead. Every trajectory has its own split of
+ * the job generator and its own slice of the shot array, so a seeded job samples the same counts
+ * on any number of cores. Amplitude damping that does not decay only scales the |1> half and leaves
+ * the state unnormalised; its squared norm is tracked instead of restored with another pass.
+ */
+final class TrajectorySimulation {
+
+    // below this squared norm the tracked state is rescaled, long before doubles underflow
+    private static final double RESCALE_BELOW = 1e-60;
+
+    private static final double[][] PAULIS = {
+            null,
+            Gate.singleQubitMatrix(GateType.X, 0.0),
+            Gate.singleQubitMatrix(GateType.Y, 0.0),
+            Gate.singleQubitMatrix(GateType.Z, 0.0)
+    };
+
+    private final StateVectorSimulator simulator;
+    private final ParallelSweep inline;
+    private final List<Gate> gates;
+    private final int qubits;
+    private final NoiseModel noise;
+    private final ExecutionMonitor monitor;
+
+    TrajectorySimulation(StateVectorSimulator simulator, ParallelSweep inline, List<Gate> gates, int qubits,
+                         NoiseModel noise, ExecutionMonitor monitor) {
+        this.simulator = simulator;
+        this.inline = inline;
+        this.gates = gates;
+        this.qubits = qubits;
+        this.noise = noise;
+        this.monitor = monitor;
+    }
+
+    ShotHistogram run(int shots, int trajectories, SplittableGenerator rng, ParallelSweep sweep) {
+        SplittableGenerator[] streams = new SplittableGenerator[trajectories];
+        for (int t = 0; t < trajectories; t++) {
+            streams[t] = rng.split();
+        }
+        long[] draws = new long[shots];
+        int workers = Math.min(trajectories, simulator.concurrentStates(qubits));
+        AtomicInteger done = new AtomicInteger();
+        if (workers == 1) {
+            // a single state: the parallelism goes into the gate kernels instead
+            runWorker(0, 1, sweep, streams, draws, done);
+        } else {
+            // one task per worker, whatever the register size
+            sweep.run(workers, Long.MAX_VALUE, (from, to) -> {
+                for (int w = from; w < to; w++) {
+                    runWorker(w, workers, inline, streams, draws, done);
+                }
+            });
+        }
+        monitor.sampled(shots, shots);
+        return ShotHistogram.fromDraws(qubits, draws, shots);
+    }
+
+    // Trajectories w, w + workers, ... on one state, gates applied through `gateSweep`
+    private void runWorker(int w, int workers, ParallelSweep gateSweep, SplittableGenerator[] streams, long[] draws,
+                           AtomicInteger done) {
+        int trajectories = streams.length;
+        int shots = draws.length;
+        try (Worker worker = new Worker(simulator.newState(qubits))) {
+            for (int t = w; t < trajectories; t += workers) {
+                if (t != w) {
+                    worker.reset();
+                }
+                evolve(worker, streams[t], gateSweep);
+                measure(worker.state, streams[t], draws, slice(t, shots, trajectories),
+                        slice(t + 1, shots, trajectories));
+                monitor.simulated(done.incrementAndGet(), trajectories);
+            }
+        }
+    }
+
+    // First shot of trajectory t: shots are split as evenly as possible, earlier trajectories taking the remainder
+    private static int slice(int t, int shots, int trajectories) {
+        return t * (shots / trajectories) + Math.min(t, shots % trajectories);
+    }
+
+    private void evolve(Worker worker, RandomGenerator rng, ParallelSweep gateSweep) {
+        StateVector state = worker.state;
+        for (Gate gate : gates) {
+            monitor.checkCancelled();
+            GateType type = gate.getType();
+            if (type == GateType.MEASURE) {
+                continue;
+            }
+            simulator.apply(gate, state, gateSweep);
+            int[] operands = gate.getQubits();
+            double depolarizing = noise.depolarizing(type);
+            if (depolarizing > 0.0) {
+                if (operands.length == 2 && !type.isRegister()) {
+                    if (rng.nextDouble() < depolarizing) {
+                        // one of the 15 non-identity Pauli pairs
+                        int pair = 1 + rng.nextInt(15);
+                        pauli(state, operands[0], pair & 3);
+                        pauli(state, operands[1], pair >>> 2);
+                    }
+                } else {
+                    for (int q : operands) {
+                        if (rng.nextDouble() < depolarizing) {
+                            pauli(state, q, 1 + rng.nextInt(3));
+                        }
+                    }
+                }
+            }
+            double damping = noise.damping(type);
+            if (damping > 0.0) {
+                for (int q : operands) {
+                    worker.damp(q, damping, rng);
+                }
+            }
+        }
+    }
+
+    private static void pauli(StateVector state, int qubit, int which) {
+        if (which != 0) {
+            state.applySingle(qubit, PAULIS[which], 0, state.pairCount());
+        }
+    }
+
+    // Shots [from, to) of the shared array: sorted uniforms walked once against the cumulative
+    // distribution, then readout errors flip bits shot by shot
+    private void measure(StateVector state, RandomGenerator rng, long[] draws, int from, int to) {
+        int n = to - from;
+        if (n == 0) {
+            return;
+        }
+        int size = state.size();
+        double total = 0.0;
+        for (int i = 0; i < size; i++) {
+            total += state.probability(i);
+        }
+        double[] uniforms = new double[n];
+        for (int j = 0; j < n; j++) {
+            uniforms[j] = rng.nextDouble() * total;
+        }
+        Arrays.sort(uniforms);
+        int s = 0;
+        int lastNonZero = 0;
+        double cumulative = 0.0;
+        for (int i = 0; i < size && s < n; i++) {
+            double p = state.probability(i);
+            if (p == 0.0) {
+                continue;
+            }
+            lastNonZero = i;
+            cumulative += p;
+            while (s < n && uniforms[s] < cumulative) {
+                draws[from + s++] = i;
+            }
+        }
+        // rounding can leave the last uniforms past the final cumulative sum
+        while (s < n) {
+            draws[from + s++] = lastNonZero;
+        }
+        if (noise.hasReadoutError()) {
+            for (int j = from; j < to; j++) {
+                draws[j] = readout(draws[j], rng);
+            }
+        }
+    }
+
+    // A worker's state with its squared norm and scratch Kraus matrices, kept across its trajectories
+    private static final class Worker implements AutoCloseable {
+        final StateVector state;
+        final double[] decay = {0, 0, 0, 0, 0, 0, 0, 0};
+        final double[] survive = {1, 0, 0, 0, 0, 0, 0, 0};
+        double norm = 1.0;
+
+        Worker(StateVector state) {
+            this.state = state;
+        }
+
+        void reset() {
+            state.reset();
+            norm = 1.0;
+        }
+
+        // One amplitude-damping step: the qubit decays to |0> with probability gamma * P(1), which
+        // leaves a normalised state; otherwise its |1> half shrinks by sqrt(1 - gamma)
+        void damp(int qubit, double gamma, RandomGenerator rng) {
+            double excited = state.excitedProbability(qubit);
+            if (excited == 0.0) {
+                return;
+            }
+            if (rng.nextDouble() * norm < gamma * excited) {
+                decay[2] = 1.0 / Math.sqrt(excited);
+                state.applySingle(qubit, decay, 0, state.pairCount());
+                norm = 1.0;
+                return;
+            }
+            survive[6] = Math.sqrt(1.0 - gamma);
+            state.applySingle(qubit, survive, 0, state.pairCount());
+            norm -= gamma * excited;
+            if (norm < RESCALE_BELOW) {
+                double scale = 1.0 / Math.sqrt(norm);
+                state.applySingle(qubit, new double[]{scale, 0, 0, 0, 0, 0, scale, 0}, 0, state.pairCount());
+                norm = 1.0;
+            }
+        }
+
+        @Override
+        public void close() {
+            state.close();
+        }
+    }
+
+    private long readout(long outcome, RandomGenerator rng) {
+        long read = outcome;
+        for (int q = 0; q < qubits; q++) {
+            boolean one = (outcome >>> q & 1L) != 0;
+            if (rng.nextDouble() < (one ? noise.readout10() : noise.readout01())) {
+                read ^= 1L << q;
+            }
+        }
+        return read;
+    }
+}
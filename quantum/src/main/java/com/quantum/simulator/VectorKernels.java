@@ -0,0 +1,145 @@
+package com.quantum.simulator;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Gate and probability kernels over heap amplitudes with the Java Vector API. A gate on qubit q
+ * pairs amplitudes 2^q apart, so the lower halves of consecutive pairs form contiguous runs of 2^q
+ * indices; the kernels vectorise along those runs and need a run to fill a whole vector, i.e.
+ * q >= {@link #MIN_QUBIT}. Lower targets stay on the scalar loops in {@link StateVector}.
+ * <p>
+ * Each lane does the same multiplications and additions in the same order as the scalar code, with
+ * no fused multiply-add, so both paths give bit-identical amplitudes and a seeded job samples the
+ * same counts on every machine. Only loaded once {@link VectorSupport} has found the module.
+ */
+final class VectorKernels {
+
+    static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    static final int LANES = SPECIES.length();
+    static final int MIN_QUBIT = Integer.numberOfTrailingZeros(LANES);
+
+    private VectorKernels() {
+    }
+
+    // 2x2 matrix on `target` over pair indices [from, to)
+    static void applySingle(double[] re, double[] im, int target, double[] m, int from, int to) {
+        int half = 1 << target;
+        double ar = m[0], ai = m[1], br = m[2], bi = m[3];
+        double cr = m[4], ci = m[5], dr = m[6], di = m[7];
+        for (int k = from; k < to; ) {
+            int end = Math.min(to, (k | (half - 1)) + 1);
+            int base = StateVector.insertZeroBit(k, target);
+            int n = end - k;
+            int j = 0;
+            for (int bound = SPECIES.loopBound(n); j < bound; j += LANES) {
+                int i0 = base + j;
+                int i1 = i0 + half;
+                DoubleVector xr = DoubleVector.fromArray(SPECIES, re, i0);
+                DoubleVector xi = DoubleVector.fromArray(SPECIES, im, i0);
+                DoubleVector yr = DoubleVector.fromArray(SPECIES, re, i1);
+                DoubleVector yi = DoubleVector.fromArray(SPECIES, im, i1);
+                xr.mul(ar).sub(xi.mul(ai)).add(yr.mul(br)).sub(yi.mul(bi)).intoArray(re, i0);
+                xi.mul(ar).add(xr.mul(ai)).add(yi.mul(br)).add(yr.mul(bi)).intoArray(im, i0);
+                xr.mul(cr).sub(xi.mul(ci)).add(yr.mul(dr)).sub(yi.mul(di)).intoArray(re, i1);
+                xi.mul(cr).add(xr.mul(ci)).add(yi.mul(dr)).add(yr.mul(di)).intoArray(im, i1);
+            }
+            for (; j < n; j++) {
+                int i0 = base + j;
+                int i1 = i0 + half;
+                double xr = re[i0], xi = im[i0];
+                double yr = re[i1], yi = im[i1];
+                re[i0] = ar * xr - ai * xi + br * yr - bi * yi;
+                im[i0] = ar * xi + ai * xr + br * yi + bi * yr;
+                re[i1] = cr * xr - ci * xi + dr * yr - di * yi;
+                im[i1] = cr * xi + ci * xr + dr * yi + di * yr;
+            }
+            k = end;
+        }
+    }
+
+    // diag(a, d) on `target`; RZ, Z, S and T leave |0> alone, so `identityTop` skips the lower half
+    static void applyDiagonal(double[] re, double[] im, int target, double ar, double ai, double dr, double di,
+                              boolean identityTop, int from, int to) {
+        int half = 1 << target;
+        for (int k = from; k < to; ) {
+            int end = Math.min(to, (k | (half - 1)) + 1);
+            int base = StateVector.insertZeroBit(k, target);
+            if (!identityTop) {
+                scale(re, im, base, end - k, ar, ai);
+            }
+            scale(re, im, base + half, end - k, dr, di);
+            k = end;
+        }
+    }
+
+    private static void scale(double[] re, double[] im, int from, int n, double sr, double si) {
+        int j = 0;
+        for (int bound = SPECIES.loopBound(n); j < bound; j += LANES) {
+            int i = from + j;
+            DoubleVector xr = DoubleVector.fromArray(SPECIES, re, i);
+            DoubleVector xi = DoubleVector.fromArray(SPECIES, im, i);
+            xr.mul(sr).sub(xi.mul(si)).intoArray(re, i);
+            xi.mul(sr).add(xr.mul(si)).intoArray(im, i);
+        }
+        for (; j < n; j++) {
+            int i = from + j;
+            double xr = re[i], xi = im[i];
+            re[i] = sr * xr - si * xi;
+            im[i] = sr * xi + si * xr;
+        }
+    }
+
+    // 2x2 matrix on `target` where `control` is set, over quad indices [from, to); both qubits >= MIN_QUBIT
+    static void applyControlled(double[] re, double[] im, int control, int target, double[] m, int from, int to) {
+        int lo = Math.min(control, target);
+        int hi = Math.max(control, target);
+        int run = 1 << lo;
+        int cbit = 1 << control;
+        int tbit = 1 << target;
+        double ar = m[0], ai = m[1], br = m[2], bi = m[3];
+        double cr = m[4], ci = m[5], dr = m[6], di = m[7];
+        for (int k = from; k < to; ) {
+            int end = Math.min(to, (k | (run - 1)) + 1);
+            int base = StateVector.insertZeroBit(StateVector.insertZeroBit(k, lo), hi) | cbit;
+            int n = end - k;
+            int j = 0;
+            for (int bound = SPECIES.loopBound(n); j < bound; j += LANES) {
+                int i0 = base + j;
+                int i1 = i0 | tbit;
+                DoubleVector xr = DoubleVector.fromArray(SPECIES, re, i0);
+                DoubleVector xi = DoubleVector.fromArray(SPECIES, im, i0);
+                DoubleVector yr = DoubleVector.fromArray(SPECIES, re, i1);
+                DoubleVector yi = DoubleVector.fromArray(SPECIES, im, i1);
+                xr.mul(ar).sub(xi.mul(ai)).add(yr.mul(br)).sub(yi.mul(bi)).intoArray(re, i0);
+                xi.mul(ar).add(xr.mul(ai)).add(yi.mul(br)).add(yr.mul(bi)).intoArray(im, i0);
+                xr.mul(cr).sub(xi.mul(ci)).add(yr.mul(dr)).sub(yi.mul(di)).intoArray(re, i1);
+                xi.mul(cr).add(xr.mul(ci)).add(yi.mul(dr)).add(yr.mul(di)).intoArray(im, i1);
+            }
+            for (; j < n; j++) {
+                int i0 = base + j;
+                int i1 = i0 | tbit;
+                double xr = re[i0], xi = im[i0];
+                double yr = re[i1], yi = im[i1];
+                re[i0] = ar * xr - ai * xi + br * yr - bi * yi;
+                im[i0] = ar * xi + ai * xr + br * yi + bi * yr;
+                re[i1] = cr * xr - ci * xi + dr * yr - di * yi;
+                im[i1] = cr * xi + ci * xr + dr * yi + di * yr;
+            }
+            k = end;
+        }
+    }
+
+    // |a|^2 for basis states [from, to) into out[from..to)
+    static void probabilities(double[] re, double[] im, double[] out, int from, int to) {
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += LANES) {
+            DoubleVector r = DoubleVector.fromArray(SPECIES, re, i);
+            DoubleVector m = DoubleVector.fromArray(SPECIES, im, i);
+            r.mul(r).add(m.mul(m)).intoArray(out, i);
+        }
+        for (; i < to; i++) {
+            out[i] = re[i] * re[i] + im[i] * im[i];
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.quantum.simulator;
+
+/**
+ * Decides once, at startup, whether dense heap states use the Java Vector API kernels. That needs
+ * the incubator module ({@code --add-modules jdk.incubator.vector}) and a preferred species of at
+ * least two doubles on this CPU; otherwise every state runs the scalar loops. The incubator classes
+ * are only loaded after the module has been found.
+ */
+public final class VectorSupport {
+
+    private static final String MODULE = "jdk.incubator.vector";
+    private static final int LANES = detectLanes();
+
+    private VectorSupport() {
+    }
+
+    public static boolean isAvailable() {
+        return LANES >= 2;
+    }
+
+    // Doubles per vector, 0 when the module was not added
+    public static int lanes() {
+        return LANES;
+    }
+
+    public static String describe() {
+        if (LANES == 0) {
+            return "scalar (" + MODULE + " not added to the JVM)";
+        }
+        if (LANES < 2) {
+            return "scalar (no double vectors on this CPU)";
+        }
+        return "Vector API, " + LANES + " x double (" + LANES * Double.SIZE + "-bit)";
+    }
+
+    private static int detectLanes() {
+        if (ModuleLayer.boot().findModule(MODULE).isEmpty()) {
+            return 0;
+        }
+        return VectorKernels.LANES;
+    }
+}
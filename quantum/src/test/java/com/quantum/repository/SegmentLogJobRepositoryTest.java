@@ -0,0 +1,200 @@
+package com.quantum.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quantum.model.QuantumJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentLogJobRepositoryTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path directory;
+
+    private SegmentLogJobRepository repository;
+
+    @AfterEach
+    void closeRepository() {
+        if (repository != null) {
+            repository.close();
+        }
+    }
+
+    @Test
+    void replayRestoresLatestRecordsAndHandsBackUnfinishedJobs() {
+        repository = open(1 << 20);
+        QuantumJob done = job("done", "alice", "QUEUED");
+        repository.save(done);
+        repository.save(job("waiting", "alice", "QUEUED"));
+        repository.save(job("deleted", "bob", "QUEUED"));
+        done.setStatus("COMPLETED");
+        done.setExecutionTime(2.0);
+        repository.save(done);
+        repository.delete("deleted");
+
+        repository = reopen(1 << 20);
+
+        assertEquals(2, repository.count());
+        assertEquals("COMPLETED", repository.findById("done").getStatus());
+        assertEquals("QUEUED", repository.findById("waiting").getStatus());
+        assertNull(repository.findById("deleted"));
+        assertEquals(2, repository.findByUser("alice").size());
+        assertTrue(repository.findByUser("bob").isEmpty());
+        assertEquals(1L, repository.countByStatus().get("COMPLETED"));
+        assertEquals(1L, repository.countByStatus().get("QUEUED"));
+        List<QuantumJob> pending = repository.recoverPending();
+        assertEquals(1, pending.size());
+        assertEquals("waiting", pending.get(0).getId());
+    }
+
+    @Test
+    void replayTruncatesTornTailAndKeepsAppending() throws IOException {
+        repository = open(1 << 20);
+        repository.save(job("first", "alice", "COMPLETED"));
+        Path segment = singleSegment();
+        long intact = Files.size(segment);
+        repository.save(job("second", "alice", "COMPLETED"));
+        repository.close();
+        repository = null;
+        // a crash part-way through the second record
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(intact + 12);
+        }
+
+        repository = open(1 << 20);
+
+        assertEquals(intact, Files.size(segment));
+        assertEquals(1, repository.count());
+        assertNotNull(repository.findById("first"));
+        assertNull(repository.findById("second"));
+
+        repository.save(job("third", "alice", "COMPLETED"));
+        repository = reopen(1 << 20);
+        assertEquals(2, repository.count());
+        assertNotNull(repository.findById("third"));
+    }
+
+    @Test
+    void replayStopsAtRecordWithBadChecksum() throws IOException {
+        repository = open(1 << 20);
+        repository.save(job("first", "alice", "COMPLETED"));
+        Path segment = singleSegment();
+        long intact = Files.size(segment);
+        repository.save(job("second", "alice", "COMPLETED"));
+        repository.close();
+        repository = null;
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[bytes.length - 2] ^= 1;
+        Files.write(segment, bytes);
+
+        repository = open(1 << 20);
+
+        assertEquals(intact, Files.size(segment));
+        assertNotNull(repository.findById("first"));
+        assertNull(repository.findById("second"));
+    }
+
+    @Test
+    void compactionDropsSupersededRecordsAndSurvivesReplay() throws IOException {
+        repository = open(1024);
+        repository.save(job("deleted", "bob", "COMPLETED"));
+        QuantumJob updated = job("updated", "alice", "QUEUED");
+        for (int i = 0; i < 20; i++) {
+            updated.setShots(i + 1);
+            repository.save(updated);
+        }
+        repository.delete("deleted");
+        repository.save(job("kept", "alice", "COMPLETED"));
+        for (int i = 20; i < 40; i++) {
+            updated.setShots(i + 1);
+            repository.save(updated);
+        }
+        long before = segmentCount();
+
+        repository.compact();
+
+        assertTrue(segmentCount() < before, "compaction should delete mostly-superseded segments");
+        assertEquals(40, repository.findById("updated").getShots());
+        assertNotNull(repository.findById("kept"));
+        assertNull(repository.findById("deleted"));
+
+        repository = reopen(1024);
+        assertEquals(2, repository.count());
+        assertEquals(40, repository.findById("updated").getShots());
+        assertNotNull(repository.findById("kept"));
+        assertNull(repository.findById("deleted"));
+        assertEquals(List.of("updated"), repository.recoverPending().stream().map(QuantumJob::getId).toList());
+    }
+
+    @Test
+    void compactionCarriesTombstonesForwardWhileOlderSegmentsHoldTheJob() throws IOException {
+        repository = open(1024);
+        // segment 1 stays mostly live, so it keeps the deleted job's record after compaction
+        repository.save(job("deleted", "bob", "COMPLETED"));
+        repository.save(job("old-1", "alice", "COMPLETED"));
+        repository.save(job("old-2", "alice", "COMPLETED"));
+        QuantumJob updated = job("updated", "alice", "COMPLETED");
+        repository.save(updated);
+        repository.delete("deleted");
+        for (int i = 0; i < 10; i++) {
+            updated.setShots(i + 1);
+            repository.save(updated);
+        }
+
+        repository.compact();
+        repository = reopen(1024);
+
+        assertNull(repository.findById("deleted"));
+        assertTrue(repository.findByUser("bob").isEmpty());
+        assertEquals(3, repository.count());
+        assertEquals(10, repository.findById("updated").getShots());
+    }
+
+    private SegmentLogJobRepository open(long segmentBytes) {
+        return new SegmentLogJobRepository(MAPPER, directory.toString(), segmentBytes, 60_000, 60_000, 0.5);
+    }
+
+    private SegmentLogJobRepository reopen(long segmentBytes) {
+        repository.close();
+        return open(segmentBytes);
+    }
+
+    private Path singleSegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.toList();
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".log")).count();
+        }
+    }
+
+    private static QuantumJob job(String id, String userId, String status) {
+        QuantumJob job = new QuantumJob();
+        job.setId(id);
+        job.setUserId(userId);
+        job.setAlgorithm("CIRCUIT");
+        job.setStatus(status);
+        job.setShots(1);
+        return job;
+    }
+}